@@ -0,0 +1,79 @@
+package edu.online.messenger.mapper;
+
+import edu.online.messenger.constant.RoleName;
+import edu.online.messenger.model.dto.AddressDto;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressView;
+import edu.online.messenger.model.entity.dto.UserView;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+    private final AddressMapper addressMapper = Mappers.getMapper(AddressMapper.class);
+
+    private User user;
+    private UserView userView;
+    private Address address;
+    private AddressView addressView;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User();
+        user.setId(5L);
+        user.setLogin("benchmarkLogin");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setRole(RoleName.USER);
+        user.setCreateDate(now);
+        user.setLastVisitDate(now);
+        userView = new UserView(5L, "benchmarkLogin", "$2a$10$abcdefghijklmnopqrstuv", RoleName.USER, now, now, 0L);
+
+        address = new Address();
+        address.setId(10L);
+        address.setUser(user);
+        address.setApartment(12);
+        address.setHousing("2");
+        address.setHouse(7);
+        address.setStreet("Nezavisimosti");
+        address.setCity("Minsk");
+        address.setPostalCode("220000");
+        address.setCountry("Belarus");
+        addressView = new AddressView(10L, 5L, 12, "2", 7, "Nezavisimosti", "Minsk", "220000", "Belarus");
+    }
+
+    @Benchmark
+    public UserDto userEntityToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto userViewToDto() {
+        return userMapper.toDto(userView);
+    }
+
+    @Benchmark
+    public AddressDto addressEntityToDto() {
+        return addressMapper.toDto(address);
+    }
+
+    @Benchmark
+    public AddressDto addressViewToDto() {
+        return addressMapper.toDto(addressView);
+    }
+}
\ No newline at end of file
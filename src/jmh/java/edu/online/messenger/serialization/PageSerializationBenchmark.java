@@ -0,0 +1,65 @@
+package edu.online.messenger.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.online.messenger.constant.RoleName;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.dto.page.PageContentDto;
+import edu.online.messenger.model.dto.page.PageDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация страницы пользователей в JSON с включённым (как в application.yml) и выключенным INDENT_OUTPUT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"true", "false"})
+    private boolean indentOutput;
+
+    @Param({"15", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageContentDto<UserDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .configure(SerializationFeature.INDENT_OUTPUT, indentOutput);
+        LocalDateTime now = LocalDateTime.now();
+        List<UserDto> users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            UserDto userDto = new UserDto();
+            userDto.setId((long) i);
+            userDto.setLogin("benchmarkLogin" + i);
+            userDto.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            userDto.setRole(RoleName.USER);
+            userDto.setCreateDate(now);
+            userDto.setLastVisitDate(now);
+            users.add(userDto);
+        }
+        page = new PageContentDto<>(new PageDto(1, pageSize, 10, 10L * pageSize), users);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
\ No newline at end of file
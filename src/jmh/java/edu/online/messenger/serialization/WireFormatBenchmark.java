@@ -0,0 +1,133 @@
+package edu.online.messenger.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import edu.online.messenger.constant.RoleName;
+import edu.online.messenger.model.dto.AddressDto;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.dto.page.PageContentDto;
+import edu.online.messenger.model.dto.page.PageDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация и десериализация UserDto, списка AddressDto и страницы PageContentDto&lt;UserDto&gt; в JSON
+ * (с INDENT_OUTPUT, как в application.yml, и без него), CBOR и Smile. Размер сообщения в байтах выводится
+ * вспомогательным счётчиком payloadBytes рядом со временем.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<AddressDto>> ADDRESS_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<PageContentDto<UserDto>> USER_PAGE = new TypeReference<>() {
+    };
+
+    @Param({"json-indent", "json", "cbor", "smile"})
+    private String format;
+
+    @Param({"user", "addresses", "page"})
+    private String payload;
+
+    private ObjectMapper objectMapper;
+    private Object value;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .configure(SerializationFeature.INDENT_OUTPUT, format.equals("json-indent"))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        value = switch (payload) {
+            case "user" -> user(1);
+            case "addresses" -> addresses(10);
+            default -> page(100);
+        };
+        encoded = objectMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serialize(Size size) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(value);
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return switch (payload) {
+            case "user" -> objectMapper.readValue(encoded, UserDto.class);
+            case "addresses" -> objectMapper.readValue(encoded, ADDRESS_LIST);
+            default -> objectMapper.readValue(encoded, USER_PAGE);
+        };
+    }
+
+    private static UserDto user(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        UserDto userDto = new UserDto();
+        userDto.setId(id);
+        userDto.setLogin("benchmarkLogin" + id);
+        userDto.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        userDto.setRole(RoleName.USER);
+        userDto.setCreateDate(now);
+        userDto.setLastVisitDate(now);
+        return userDto;
+    }
+
+    private static List<AddressDto> addresses(int count) {
+        List<AddressDto> addresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AddressDto addressDto = new AddressDto();
+            addressDto.setId((long) i);
+            addressDto.setCountry("Russia");
+            addressDto.setCity("Moscow");
+            addressDto.setStreet("Lenina");
+            addressDto.setPostalCode("123456");
+            addressDto.setHouse(i + 1);
+            addressDto.setHousing("A");
+            addressDto.setApartment(i + 10);
+            addresses.add(addressDto);
+        }
+        return addresses;
+    }
+
+    private static PageContentDto<UserDto> page(int pageSize) {
+        List<UserDto> users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            users.add(user(i));
+        }
+        return new PageContentDto<>(new PageDto(1, pageSize, 10, 10L * pageSize), users);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package edu.online.messenger.service.impl;
+
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки фильтра на пустоту через рефлексию по компонентам записи,
+ * которая выполняется на каждый запрос GET /api/users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilterCheckBenchmark {
+
+    private final AddressFilterDto emptyFilter = new AddressFilterDto(null, null, null, null, null, null, null);
+    private final AddressFilterDto fullFilter =
+            new AddressFilterDto("Belarus", "220000", "Minsk", "Nezavisimosti", "7", "2", "12");
+
+    @Benchmark
+    public boolean emptyFilter() {
+        return UserServiceImpl.isFilterEmpty(emptyFilter);
+    }
+
+    @Benchmark
+    public boolean fullFilter() {
+        return UserServiceImpl.isFilterEmpty(fullFilter);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package edu.online.messenger.specification;
+
+import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AddressSpecificationBenchmark {
+
+    private final AddressFilterDto emptyFilter = new AddressFilterDto(null, null, null, null, null, null, null);
+    private final AddressFilterDto partialFilter = new AddressFilterDto("Belarus", null, "Minsk", null, null, null, null);
+    private final AddressFilterDto fullFilter =
+            new AddressFilterDto("Belarus", "220000", "Minsk", "Nezavisimosti", "7", "2", "12");
+
+    @Benchmark
+    public Specification<Address> emptyFilter() {
+        return AddressSpecification.findAll(emptyFilter);
+    }
+
+    @Benchmark
+    public Specification<Address> partialFilter() {
+        return AddressSpecification.findAll(partialFilter);
+    }
+
+    @Benchmark
+    public Specification<Address> fullFilter() {
+        return AddressSpecification.findAll(fullFilter);
+    }
+}
\ No newline at end of file
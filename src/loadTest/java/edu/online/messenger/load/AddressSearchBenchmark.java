@@ -0,0 +1,134 @@
+package edu.online.messenger.load;
+
+import edu.online.messenger.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Замеряет GET /api/users/search на search.addresses адресах с триграммными GIN-индексами и без них.
+ * Улицы уникальны (префикс md5), поэтому каждый запрос находит единицы адресов, как поиск по реальному
+ * справочнику. Запросы трёх видов: префикс улицы, префикс с опечаткой и префикс города.
+ * <p>
+ * Запуск: {@code ./gradlew addressSearchBenchmark -Dsearch.addresses=2000000}
+ */
+public class AddressSearchBenchmark {
+
+    private static final int ADDRESSES = Integer.getInteger("search.addresses", 2_000_000);
+    private static final int CONCURRENCY = Integer.getInteger("search.concurrency", 8);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("search.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("search.duration", "PT30S"));
+
+    public static void main(String[] args) {
+        List<LatencyRecorder.Snapshot> results = new ArrayList<>();
+        try (BenchmarkDatabase database = new BenchmarkDatabase().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                     .profiles("test")
+                     .properties(database.properties())
+                     .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/users/search?limit=20&q=";
+            List<Query> queries = List.of(
+                    new Query("street prefix", street -> street.substring(0, 6)),
+                    new Query("street prefix with typo", street -> street.charAt(1) + street.substring(0, 1)
+                            + street.substring(2, 8)),
+                    new Query("city prefix", street -> "city " + Integer.parseInt(street.substring(0, 4), 16)));
+
+            load(baseUrl, queries, "indexed", WARMUP);
+            results.addAll(load(baseUrl, queries, "indexed", DURATION));
+
+            jdbcTemplate.execute("DROP INDEX idx_address_city_trgm, idx_address_street_trgm");
+            results.addAll(load(baseUrl, queries, "seq scan", DURATION));
+        }
+        System.out.printf("%nАдресов: %d, клиентов: %d, замер: %s%n", ADDRESSES, CONCURRENCY, DURATION);
+        System.out.println(LatencyRecorder.Snapshot.header());
+        results.forEach(System.out::println);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role, last_visit_date) "
+                + "SELECT 100000 + g, 'search_user_' || g, 'password', 'USER', LOCALTIMESTAMP "
+                + "FROM generate_series(1, ?) g", ADDRESSES);
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "SELECT 100000 + g, 100000 + g, 'Country', 'City ' || (g % 65536), left(md5(g::text), 12), "
+                + "'000000', 1 FROM generate_series(1, ?) g", ADDRESSES);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static List<LatencyRecorder.Snapshot> load(String baseUrl, List<Query> queries, String mode,
+                                                       Duration duration) {
+        List<LatencyRecorder> recorders = queries.stream()
+                .map(query -> new LatencyRecorder(mode + " " + query.name()))
+                .toList();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build()) {
+            for (int client = 0; client < CONCURRENCY; client++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int index = random.nextInt(queries.size());
+                        String street = street(random.nextInt(1, ADDRESSES + 1));
+                        String q = queries.get(index).text().apply(street);
+                        send(httpClient, baseUrl + URLEncoder.encode(q, StandardCharsets.UTF_8), recorders.get(index));
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        return recorders.stream().map(recorder -> recorder.snapshot(elapsed)).toList();
+    }
+
+    /**
+     * Улица адреса с номером g так же, как её заполняет {@link #seed}: первые 12 символов md5(g).
+     */
+    private static String street(int g) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(String.valueOf(g).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void send(HttpClient httpClient, String url, LatencyRecorder recorder) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+                recorder.record(System.nanoTime() - startedAt);
+            } else {
+                recorder.recordError();
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            recorder.recordError();
+        }
+    }
+
+    private record Query(String name, Function<String, String> text) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package edu.online.messenger.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PostgreSQL в контейнере для нагрузочных прогонов и свойства, с которыми сервис к нему подключается.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:17.4-alpine")
+            .withDatabaseName("edu_online_messenger_load")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    public BenchmarkDatabase start() {
+        container.start();
+        return this;
+    }
+
+    public Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", container.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        properties.put("spring.datasource.username", container.getUsername());
+        properties.put("spring.datasource.password", container.getPassword());
+        properties.put("spring.liquibase.user", container.getUsername());
+        properties.put("spring.liquibase.password", container.getPassword());
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        properties.put("server.port", 0);
+        properties.put("eureka.client.enabled", false);
+        properties.put("logging.level.edu.online.messenger", "WARN");
+        properties.put("spring.jpa.show-sql", false);
+        return properties;
+    }
+
+    /**
+     * Заполняет users и address; вызывается после старта сервиса, так как Liquibase пересоздаёт схему.
+     */
+    public void seed(JdbcTemplate jdbcTemplate, int users) {
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role, last_visit_date) "
+                + "SELECT 100000 + g, 'load_user_' || g, 'password', 'USER', LOCALTIMESTAMP "
+                + "FROM generate_series(1, ?) g", users);
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "SELECT 100000 + g, 100000 + g, 'Country ' || (g % 10), 'City ' || (g % 100), "
+                + "'Street ' || (g % 1000), lpad((g % 1000000)::text, 6, '0'), g % 200 + 1 "
+                + "FROM generate_series(1, ?) g", users);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+    }
+}
\ No newline at end of file
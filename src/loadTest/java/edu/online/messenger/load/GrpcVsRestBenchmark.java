@@ -0,0 +1,232 @@
+package edu.online.messenger.load;
+
+import edu.online.messenger.UserServiceApplication;
+import edu.online.messenger.grpc.proto.ExistsBatchRequest;
+import edu.online.messenger.grpc.proto.ExistsBatchResponse;
+import edu.online.messenger.grpc.proto.UserIdRequest;
+import edu.online.messenger.grpc.proto.UserLoginRequest;
+import edu.online.messenger.grpc.proto.UserLookupServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнивает задержки и пропускную способность одних и тех же операций через REST (HTTP/1.1, JSON) и gRPC
+ * (одно HTTP/2-соединение, protobuf): поиск по id и логину, проверка существования по id и пакетная проверка
+ * существования grpc-benchmark.batch-size id (POST /existence против потока StreamExistsByIds). Сценарии
+ * прогоняются по очереди, в каждом grpc-benchmark.concurrency клиентов в замкнутом цикле шлют запросы
+ * в течение grpc-benchmark.duration после прогрева.
+ * <p>
+ * Запуск: {@code ./gradlew grpcBenchmark -Dgrpc-benchmark.concurrency=200}
+ */
+public class GrpcVsRestBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("grpc-benchmark.concurrency", 200);
+    private static final int USERS = Integer.getInteger("grpc-benchmark.users", 100_000);
+    private static final int BATCH_SIZE = Integer.getInteger("grpc-benchmark.batch-size", 1000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("grpc-benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("grpc-benchmark.duration", "PT30S"));
+    private static final int GRPC_PORT = Integer.getInteger("grpc-benchmark.grpc-port", 19097);
+    private static final long FIRST_USER_ID = 100001;
+
+    public static void main(String[] args) {
+        List<LatencyRecorder.Snapshot> results = new ArrayList<>();
+        try (BenchmarkDatabase database = new BenchmarkDatabase().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                     .profiles("test")
+                     .properties(database.properties())
+                     .run("--grpc.server.port=" + GRPC_PORT)) {
+            database.seed(context.getBean(JdbcTemplate.class), USERS);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", GRPC_PORT)
+                    .usePlaintext()
+                    .build();
+            try (HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                UserLookupServiceGrpc.UserLookupServiceBlockingStub blockingStub =
+                        UserLookupServiceGrpc.newBlockingStub(channel);
+                List<Scenario> scenarios = List.of(
+                        new Scenario("REST GET /{id}", () -> random ->
+                                get(httpClient, baseUrl + "/api/users/" + userId(random))),
+                        new Scenario("gRPC GetUserById", () -> random ->
+                                blockingStub.getUserById(UserIdRequest.newBuilder().setId(userId(random)).build())
+                                        .getId() > 0),
+                        new Scenario("REST GET /login/{login}", () -> random ->
+                                get(httpClient, baseUrl + "/api/users/login/" + login(random))),
+                        new Scenario("gRPC GetUserByLogin", () -> random ->
+                                !blockingStub.getUserByLogin(UserLoginRequest.newBuilder().setLogin(login(random)).build())
+                                        .getLogin().isEmpty()),
+                        new Scenario("REST GET /existence/id/{id}", () -> random ->
+                                get(httpClient, baseUrl + "/api/users/existence/id/" + userId(random))),
+                        new Scenario("gRPC ExistsById", () -> random ->
+                                blockingStub.existsById(UserIdRequest.newBuilder().setId(userId(random)).build())
+                                        .getExists()),
+                        new Scenario("REST POST /existence x" + BATCH_SIZE, () -> random ->
+                                post(httpClient, baseUrl + "/api/users/existence", "{\"ids\":" + batch(random).stream()
+                                        .map(String::valueOf)
+                                        .collect(Collectors.joining(",", "[", "]")) + "}")),
+                        new Scenario("gRPC StreamExistsByIds x" + BATCH_SIZE, () -> new ExistsStream(channel)));
+
+                for (Scenario scenario : scenarios) {
+                    load(scenario, WARMUP);
+                    results.add(load(scenario, DURATION));
+                }
+            } finally {
+                channel.shutdownNow();
+            }
+        }
+        System.out.printf("%nКлиентов: %d, пользователей: %d, пакет: %d, прогрев: %s, замер: %s%n",
+                CONCURRENCY, USERS, BATCH_SIZE, WARMUP, DURATION);
+        System.out.println(LatencyRecorder.Snapshot.header());
+        results.forEach(System.out::println);
+    }
+
+    private static LatencyRecorder.Snapshot load(Scenario scenario, Duration duration) {
+        LatencyRecorder recorder = new LatencyRecorder(scenario.name());
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < CONCURRENCY; client++) {
+                clients.submit(() -> {
+                    try (Call call = scenario.client().get()) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < deadline) {
+                            long requestStartedAt = System.nanoTime();
+                            if (execute(call, random)) {
+                                recorder.record(System.nanoTime() - requestStartedAt);
+                            } else {
+                                recorder.recordError();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        return recorder.snapshot(System.nanoTime() - startedAt);
+    }
+
+    private static boolean execute(Call call, ThreadLocalRandom random) {
+        try {
+            return call.execute(random);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private static boolean get(HttpClient httpClient, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200;
+    }
+
+    private static boolean post(HttpClient httpClient, String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200;
+    }
+
+    private static long userId(ThreadLocalRandom random) {
+        return FIRST_USER_ID + random.nextInt(USERS);
+    }
+
+    private static String login(ThreadLocalRandom random) {
+        return "load_user_" + random.nextInt(1, USERS + 1);
+    }
+
+    private static List<Long> batch(ThreadLocalRandom random) {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(FIRST_USER_ID + random.nextInt(USERS * 2));
+        }
+        return ids;
+    }
+
+    private record Scenario(String name, Supplier<Call> client) {
+    }
+
+    @FunctionalInterface
+    private interface Call extends AutoCloseable {
+
+        boolean execute(ThreadLocalRandom random) throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    /**
+     * Поток StreamExistsByIds одного клиента: пакет отправляется только после ответа на предыдущий, чтобы
+     * задержка считалась так же, как у POST /existence.
+     */
+    private static final class ExistsStream implements Call, StreamObserver<ExistsBatchResponse> {
+
+        private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+        private final StreamObserver<ExistsBatchRequest> requests;
+        private Throwable failure;
+
+        ExistsStream(ManagedChannel channel) {
+            this.requests = UserLookupServiceGrpc.newStub(channel).streamExistsByIds(this);
+        }
+
+        @Override
+        public boolean execute(ThreadLocalRandom random) throws Exception {
+            if (failure != null) {
+                throw new IllegalStateException(failure);
+            }
+            requests.onNext(ExistsBatchRequest.newBuilder().addAllIds(batch(random)).build());
+            Object response = responses.poll(30, TimeUnit.SECONDS);
+            if (response instanceof Throwable t) {
+                failure = t;
+                throw new IllegalStateException(t);
+            }
+            return response instanceof ExistsBatchResponse batchResponse && batchResponse.getExistsCount() == BATCH_SIZE;
+        }
+
+        @Override
+        public void onNext(ExistsBatchResponse value) {
+            responses.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            responses.add(t);
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+
+        @Override
+        public void close() {
+            if (failure == null) {
+                requests.onCompleted();
+            }
+        }
+    }
+}
\ No newline at end of file
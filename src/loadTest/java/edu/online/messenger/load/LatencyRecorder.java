@@ -0,0 +1,62 @@
+package edu.online.messenger.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Накапливает задержки запросов в наносекундах и считает по ним перцентили.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private final AtomicLong errors = new AtomicLong();
+    private long[] latencies = new long[1 << 16];
+    private int size;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public synchronized void record(long latencyNanos) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    public synchronized Snapshot snapshot(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        return new Snapshot(name, sorted.length, errors.get(), sorted.length * 1_000_000_000.0 / elapsedNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    public record Snapshot(String name, long requests, long errors, double throughput,
+                           long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+
+        public static String header() {
+            return String.format("%-32s %10s %8s %10s %9s %9s %9s %9s",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    name, requests, errors, throughput,
+                    p50Nanos / 1e6, p95Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
\ No newline at end of file
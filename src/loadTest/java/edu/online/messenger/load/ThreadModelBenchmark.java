@@ -0,0 +1,109 @@
+package edu.online.messenger.load;
+
+import edu.online.messenger.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Сравнивает обработку запросов на платформенных и виртуальных потоках на эндпоинтах чтения.
+ * Для каждой модели поднимается сервис на общей БД в контейнере, после прогрева
+ * benchmark.concurrency клиентов в замкнутом цикле шлют запросы в течение benchmark.duration.
+ * <p>
+ * Запуск: {@code ./gradlew threadModelBenchmark -Dbenchmark.concurrency=1000}
+ */
+public class ThreadModelBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int USERS = Integer.getInteger("benchmark.users", 10_000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+
+    public static void main(String[] args) {
+        List<LatencyRecorder.Snapshot> results = new ArrayList<>();
+        try (BenchmarkDatabase database = new BenchmarkDatabase().start()) {
+            results.addAll(run(database, "platform", "test"));
+            results.addAll(run(database, "virtual", "test", "virtual"));
+        }
+        System.out.printf("%nКлиентов: %d, пользователей: %d, прогрев: %s, замер: %s%n",
+                CONCURRENCY, USERS, WARMUP, DURATION);
+        System.out.println(LatencyRecorder.Snapshot.header());
+        results.forEach(System.out::println);
+    }
+
+    private static List<LatencyRecorder.Snapshot> run(BenchmarkDatabase database, String model, String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .profiles(profiles)
+                .properties(database.properties())
+                .run()) {
+            database.seed(context.getBean(JdbcTemplate.class), USERS);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Endpoint> endpoints = List.of(
+                    new Endpoint(model + " GET /api/users/{id}",
+                            id -> baseUrl + "/api/users/" + (100000 + id)),
+                    new Endpoint(model + " GET /api/users?country",
+                            id -> baseUrl + "/api/users?pageSize=15&pageNumber=" + (id % 50 + 1)
+                                    + "&country=Country%20" + (id % 10)));
+
+            load(endpoints, WARMUP);
+            return load(endpoints, DURATION);
+        }
+    }
+
+    private static List<LatencyRecorder.Snapshot> load(List<Endpoint> endpoints, Duration duration) {
+        List<LatencyRecorder> recorders = endpoints.stream().map(endpoint -> new LatencyRecorder(endpoint.name())).toList();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            for (int client = 0; client < CONCURRENCY; client++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int index = random.nextInt(endpoints.size());
+                        send(httpClient, endpoints.get(index).url().apply(random.nextInt(1, USERS + 1)),
+                                recorders.get(index));
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        return recorders.stream().map(recorder -> recorder.snapshot(elapsed)).toList();
+    }
+
+    private static void send(HttpClient httpClient, String url, LatencyRecorder recorder) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+                recorder.record(System.nanoTime() - startedAt);
+            } else {
+                recorder.recordError();
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            recorder.recordError();
+        }
+    }
+
+    private record Endpoint(String name, IntFunction<String> url) {
+    }
+}
\ No newline at end of file
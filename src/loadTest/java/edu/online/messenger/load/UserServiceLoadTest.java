@@ -0,0 +1,212 @@
+package edu.online.messenger.load;
+
+import edu.online.messenger.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный тест всех маршрутов UserController по открытой модели: запросы отправляются с фиксированной
+ * суммарной частотой load.rate независимо от того, успел ли сервис ответить на предыдущие. Задержка считается
+ * от запланированного момента отправки, поэтому очередь на стороне сервиса не скрывается (coordinated omission).
+ * <p>
+ * Запуск: {@code ./gradlew loadTest -Dload.rate=500 -Dload.users=100000 -Dload.duration=PT60S}
+ * <p>
+ * По умолчанию схема поднимается тестовыми миграциями (load.profiles=test); users.password в них расширен
+ * до varchar(255), как в основной схеме, иначе POST / с BCrypt-хешем падал бы с 500 и искажал замер.
+ */
+public class UserServiceLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 100_000);
+    private static final int RATE = Integer.getInteger("load.rate", 500);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT60S"));
+    private static final String[] PROFILES = System.getProperty("load.profiles", "test").split(",");
+    private static final long FIRST_USER_ID = 100001;
+    private static final int BCRYPT_HASH_LENGTH = 60;
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ConcurrentLinkedQueue<Long> createdAddressIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdUsers = new AtomicLong();
+    private final String baseUrl;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+
+    private UserServiceLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.scenarios = List.of(
+                new Scenario("GET /existence/id/{id}", 15, random -> get("/api/users/existence/id/" + userId(random))),
+                new Scenario("GET /existence/login/{login}", 10, random -> get("/api/users/existence/login/" + login(random))),
+                new Scenario("GET /{id}", 20, random -> get("/api/users/" + userId(random))),
+                new Scenario("GET /login/{login}", 10, random -> get("/api/users/login/" + login(random))),
+                new Scenario("GET /?country&city", 10, random -> get("/api/users?pageSize=15&pageNumber="
+                        + random.nextInt(1, 20) + "&country=Country%20" + random.nextInt(10) + "&city=City%20"
+                        + random.nextInt(100))),
+                new Scenario("GET /search?q", 5, random -> get("/api/users/search?limit=20&q=Street%20"
+                        + random.nextInt(1000))),
+                new Scenario("GET /address/{userId}", 10, random -> get("/api/users/address/" + userId(random))),
+                new Scenario("POST /", 5, random -> post("/api/users", "{\"login\":\"load_created_"
+                        + System.nanoTime() + "_" + createdUsers.incrementAndGet()
+                        + "\",\"password\":\"loadPassword1\",\"role\":\"USER\"}")),
+                new Scenario("POST /address", 10, random -> post("/api/users/address", "{\"userId\":" + userId(random)
+                        + ",\"country\":\"Country 1\",\"city\":\"City 1\",\"street\":\"Street 1\","
+                        + "\"postalCode\":\"220000\",\"house\":1}")),
+                new Scenario("DELETE /address/{id}", 10, random -> {
+                    Long addressId = createdAddressIds.poll();
+                    return addressId == null ? null : delete("/api/users/address/" + addressId);
+                }));
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+    }
+
+    public static void main(String[] args) {
+        try (BenchmarkDatabase database = new BenchmarkDatabase().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                     .profiles(PROFILES)
+                     .properties(database.properties())
+                     .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            checkPasswordColumn(jdbcTemplate);
+            database.seed(jdbcTemplate, USERS);
+            UserServiceLoadTest loadTest = new UserServiceLoadTest(
+                    "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+            System.out.printf("Прогрев %s на %d запр./с%n", WARMUP, RATE);
+            loadTest.run(WARMUP);
+            System.out.printf("Замер %s на %d запр./с%n", DURATION, RATE);
+            List<LatencyRecorder.Snapshot> results = loadTest.run(DURATION);
+
+            System.out.printf("%nПользователей: %d, частота: %d запр./с, профили: %s%n",
+                    USERS, RATE, String.join(",", PROFILES));
+            System.out.println(LatencyRecorder.Snapshot.header());
+            results.forEach(System.out::println);
+        }
+    }
+
+    private static void checkPasswordColumn(JdbcTemplate jdbcTemplate) {
+        Integer length = jdbcTemplate.queryForObject("SELECT character_maximum_length FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'password'",
+                Integer.class);
+        if (length != null && length < BCRYPT_HASH_LENGTH) {
+            throw new IllegalStateException("users.password varchar(" + length + ") короче BCrypt-хеша ("
+                    + BCRYPT_HASH_LENGTH + " символов), профили: " + String.join(",", PROFILES));
+        }
+    }
+
+    private List<LatencyRecorder.Snapshot> run(Duration duration) {
+        Map<Scenario, LatencyRecorder> recorders = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> recorders.put(scenario, new LatencyRecorder(scenario.name())));
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long requests = duration.toNanos() / interval;
+        long startedAt = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = startedAt + i * interval;
+                long delay = intendedStart - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                Scenario scenario = pick(ThreadLocalRandom.current());
+                senders.submit(() -> execute(scenario, recorders.get(scenario), intendedStart));
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        List<LatencyRecorder.Snapshot> snapshots = new ArrayList<>();
+        recorders.values().forEach(recorder -> snapshots.add(recorder.snapshot(elapsed)));
+        return snapshots;
+    }
+
+    private void execute(Scenario scenario, LatencyRecorder recorder, long intendedStart) {
+        HttpRequest request = scenario.request().build(ThreadLocalRandom.current());
+        if (request == null) {
+            return;
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                recorder.recordError();
+                return;
+            }
+            recorder.record(System.nanoTime() - intendedStart);
+            if (request.uri().getPath().endsWith("/api/users/address") && "POST".equals(request.method())) {
+                Matcher matcher = ID_PATTERN.matcher(response.body());
+                if (matcher.find()) {
+                    createdAddressIds.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            recorder.recordError();
+        }
+    }
+
+    private Scenario pick(ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            value -= scenario.weight();
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static long userId(ThreadLocalRandom random) {
+        return FIRST_USER_ID + random.nextInt(USERS);
+    }
+
+    private static String login(ThreadLocalRandom random) {
+        return "load_user_" + (1 + random.nextInt(USERS));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private record Scenario(String name, int weight, RequestFactory request) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest build(ThreadLocalRandom random);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package edu.online.messenger.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Кеш пользователей по id и логину. Вместе с телом хранится версия строки users (@Version), по которой
+ * строится ETag: так тело и версия из кеша всегда согласованы друг с другом. При чтении с реплик запись
+ * может прийти с отставанием до read-replicas.max-lag, поэтому время жизни ограничивается этим значением,
+ * чтобы кеш не продлевал устаревание. Попадания и промахи обоих кешей публикуются в MeterRegistry
+ * (cache.gets с тегом cache=users.byId и users.byLogin); каждое обращение к кешу делается через getIfPresent,
+ * чтобы оно попадало в статистику ровно один раз.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, VersionedUserDto> usersById;
+    private final Cache<String, Long> userIdsByLogin;
+
+    public UserCache(@Value("${user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${user-cache.time-to-live:5m}") Duration timeToLive,
+                     @Value("${read-replicas.enabled:false}") boolean readReplicasEnabled,
+                     @Value("${read-replicas.max-lag:PT5S}") Duration maxReplicaLag,
+                     MeterRegistry meterRegistry) {
+        timeToLive = effectiveTimeToLive(timeToLive, readReplicasEnabled, maxReplicaLag);
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.userIdsByLogin = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByLogin, "users.byLogin");
+    }
+
+    public UserDto getById(Long id) {
+        VersionedUserDto cachedUser = usersById.getIfPresent(id);
+        return cachedUser == null ? null : cachedUser.user();
+    }
+
+    public VersionedUserDto getVersionedById(Long id) {
+        return usersById.getIfPresent(id);
+    }
+
+    public UserDto getByLogin(String login) {
+        Long id = userIdsByLogin.getIfPresent(login);
+        if (id == null) {
+            return null;
+        }
+        VersionedUserDto cachedUser = usersById.getIfPresent(id);
+        return cachedUser != null && login.equals(cachedUser.user().getLogin()) ? cachedUser.user() : null;
+    }
+
+    public void put(UserDto userDto, long version) {
+        usersById.put(userDto.getId(), new VersionedUserDto(userDto, version));
+        userIdsByLogin.put(userDto.getLogin(), userDto.getId());
+    }
+
+    public void evictById(Long id) {
+        VersionedUserDto removed = usersById.asMap().remove(id);
+        if (removed != null) {
+            userIdsByLogin.invalidate(removed.user().getLogin());
+        }
+    }
+
+    public void evictAllById(Collection<Long> ids) {
+        ids.forEach(this::evictById);
+    }
+
+    public void evictByLogin(String login) {
+        Long id = userIdsByLogin.asMap().remove(login);
+        if (id != null) {
+            usersById.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        usersById.invalidateAll();
+        userIdsByLogin.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return usersById.stats().plus(userIdsByLogin.stats());
+    }
+
+    public long size() {
+        return usersById.estimatedSize();
+    }
+
+    static Duration effectiveTimeToLive(Duration timeToLive, boolean readReplicasEnabled, Duration maxReplicaLag) {
+        return readReplicasEnabled && maxReplicaLag.compareTo(timeToLive) < 0 ? maxReplicaLag : timeToLive;
+    }
+}
\ No newline at end of file
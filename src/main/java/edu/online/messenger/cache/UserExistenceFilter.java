@@ -0,0 +1,240 @@
+package edu.online.messenger.cache;
+
+import edu.online.messenger.datasource.PrimaryReadContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Фильтр Блума по id и логинам пользователей. Отрицательный ответ гарантирован только пока экземпляр слушает
+ * канал user_keys: триггер уровня оператора на users публикует в него id и логины новых пользователей
+ * при коммите, откуда бы они ни были созданы (другой экземпляр, пакетная вставка, прямой SQL). Одно
+ * уведомление содержит строки «id логин», разделённые переводом строки. Подписка оформляется до
+ * построения фильтра, поэтому между снимком и уведомлениями нет пропусков. Пока соединение для LISTEN
+ * не установлено или разорвано, фильтр отвечает «возможно есть» и проверка идёт в БД; после
+ * переподключения фильтр строится заново.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private static final String CHANNEL = "user_keys";
+    private static final String ID_PREFIX = "id:";
+    private static final String LOGIN_PREFIX = "login:";
+    private static final int KEYS_PER_USER = 2;
+    private static final int FETCH_SIZE = 5000;
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final double falsePositiveProbability;
+    private final long minimumCapacity;
+    private final double capacityHeadroom;
+    private final long recentWindowMillis;
+    private final Duration reconnectDelay;
+    private final Deque<RecentKey> recentKeys = new ConcurrentLinkedDeque<>();
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter pending;
+    private volatile boolean listening;
+    private volatile Thread listener;
+
+    public UserExistenceFilter(JdbcTemplate jdbcTemplate,
+                               DataSourceProperties dataSourceProperties,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${user-existence-filter.enabled:true}") boolean enabled,
+                               @Value("${user-existence-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                               @Value("${user-existence-filter.minimum-capacity:100000}") long minimumCapacity,
+                               @Value("${user-existence-filter.capacity-headroom:1.5}") double capacityHeadroom,
+                               @Value("${user-existence-filter.recent-window:5m}") Duration recentWindow,
+                               @Value("${user-existence-filter.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.minimumCapacity = minimumCapacity;
+        this.capacityHeadroom = capacityHeadroom;
+        this.recentWindowMillis = recentWindow.toMillis();
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public boolean mightContainId(Long id) {
+        return mightContain(ID_PREFIX + id);
+    }
+
+    public boolean mightContainLogin(String login) {
+        return mightContain(LOGIN_PREFIX + login);
+    }
+
+    public void addId(Long id) {
+        add(ID_PREFIX + id);
+    }
+
+    public void addLogin(String login) {
+        add(LOGIN_PREFIX + login);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        listener = Thread.ofPlatform().daemon().name("user-existence-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = listener;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    @Scheduled(fixedDelayString = "${user-existence-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${user-existence-filter.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (listening) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Снимок строится с основной БД: реплика может не содержать пользователей, уведомления о которых
+     * уже пришли до подписки.
+     */
+    synchronized boolean rebuild() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            Long userCount = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+            long capacity = Math.max(minimumCapacity,
+                    (long) (userCount * KEYS_PER_USER * capacityHeadroom));
+            BloomFilter rebuilt = BloomFilter.create(capacity, falsePositiveProbability);
+            pending = rebuilt;
+            PrimaryReadContext.onPrimary(() -> transactionTemplate.execute(status -> {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT id, login FROM users");
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                }, resultSet -> {
+                    rebuilt.put(ID_PREFIX + resultSet.getLong(1));
+                    rebuilt.put(LOGIN_PREFIX + resultSet.getString(2));
+                });
+                return null;
+            }));
+            long replayFrom = startedAt - recentWindowMillis;
+            recentKeys.stream()
+                    .filter(recentKey -> recentKey.addedAt() >= replayFrom)
+                    .forEach(recentKey -> rebuilt.put(recentKey.key()));
+            filter = rebuilt;
+            log.info("Фильтр существования пользователей перестроен: {} пользователей, {} бит, {} мс",
+                    userCount, rebuilt.bitSize(), System.currentTimeMillis() - startedAt);
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Не удалось перестроить фильтр существования пользователей: {}", e.getMessage());
+            return false;
+        } finally {
+            pending = null;
+        }
+    }
+
+    private boolean mightContain(String key) {
+        BloomFilter current = filter;
+        return !listening || current == null || current.mightContain(key);
+    }
+
+    private void listen() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (rebuild()) {
+                    listening = true;
+                    receive(connection.unwrap(PGConnection.class));
+                }
+            } catch (SQLException e) {
+                log.warn("Соединение для уведомлений о пользователях потеряно: {}", e.getMessage());
+            } finally {
+                listening = false;
+            }
+            if (!pause()) {
+                return;
+            }
+        }
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+        while (!Thread.currentThread().isInterrupted()) {
+            PGNotification[] notifications = connection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                for (String entry : notification.getParameter().split("\n")) {
+                    int separator = entry.indexOf(' ');
+                    add(ID_PREFIX + entry.substring(0, separator));
+                    add(LOGIN_PREFIX + entry.substring(separator + 1));
+                }
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void add(String key) {
+        long now = System.currentTimeMillis();
+        recentKeys.addLast(new RecentKey(key, now));
+        BloomFilter next = pending;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        if (next != null) {
+            next.put(key);
+        }
+        RecentKey oldest;
+        while ((oldest = recentKeys.peekFirst()) != null && oldest.addedAt() < now - recentWindowMillis) {
+            recentKeys.remove(oldest);
+        }
+    }
+
+    private record RecentKey(String key, long addedAt) {
+    }
+}
\ No newline at end of file
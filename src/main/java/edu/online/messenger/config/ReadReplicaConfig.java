@@ -0,0 +1,89 @@
+package edu.online.messenger.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import edu.online.messenger.datasource.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * read-replicas.enabled=true: источник данных dataSource заменяется маршрутизатором
+ * {@link ReplicaRoutingDataSource} за {@link LazyConnectionDataSourceProxy}, read-only транзакции
+ * читают с реплик из read-replicas.replicas.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static DestructionAwareBeanPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        ReadReplicaProperties properties = Binder.get(environment)
+                .bindOrCreate("read-replicas", ReadReplicaProperties.class);
+        Map<String, ReplicaRoutingDataSource> routingDataSources = new ConcurrentHashMap<>();
+        return new DestructionAwareBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                ReplicaRoutingDataSource routingDataSource =
+                        new ReplicaRoutingDataSource(primary, createReplicas(properties.replicas()), properties.maxLag());
+                routingDataSource.checkReplicas();
+                routingDataSources.put(beanName, routingDataSource);
+                log.info("Чтение в read-only транзакциях идёт с {} реплик, доступно {}",
+                        properties.replicas().size(), routingDataSource.availableReplicas());
+                return new LazyConnectionDataSourceProxy(routingDataSource);
+            }
+
+            @Override
+            public void postProcessBeforeDestruction(Object bean, String beanName) {
+                ReplicaRoutingDataSource routingDataSource = routingDataSources.remove(beanName);
+                if (routingDataSource != null) {
+                    try {
+                        routingDataSource.close();
+                    } catch (Exception e) {
+                        log.warn("Не удалось закрыть пулы реплик: {}", e.getMessage());
+                    }
+                }
+            }
+
+            @Override
+            public boolean requiresDestruction(Object bean) {
+                return bean instanceof DataSource;
+            }
+        };
+    }
+
+    private static Map<String, DataSource> createReplicas(List<ReadReplicaProperties.Replica> replicas) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReadReplicaProperties.Replica replica = replicas.get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replica.url());
+            config.setUsername(replica.username());
+            config.setPassword(replica.password());
+            config.setMaximumPoolSize(replica.maximumPoolSize());
+            config.setConnectionTimeout(replica.connectionTimeout().toMillis());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            dataSources.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return dataSources;
+    }
+}
\ No newline at end of file
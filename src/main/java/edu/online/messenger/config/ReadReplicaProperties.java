@@ -0,0 +1,24 @@
+package edu.online.messenger.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки read-replicas.*: список реплик и условия, при которых чтение с них допустимо.
+ */
+public record ReadReplicaProperties(
+        @DefaultValue("PT5S") Duration maxLag,
+        @DefaultValue List<Replica> replicas
+) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("PT2S") Duration connectionTimeout
+    ) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package edu.online.messenger.config;
+
+import edu.online.messenger.datasource.ConnectionLimitingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Профиль virtual: запросы, @Scheduled и @Async выполняются на виртуальных потоках
+ * (spring.threads.virtual.enabled в application-virtual.yml), а число одновременных обращений к БД
+ * ограничено размером пула Hikari. Семафор оборачивает физический источник данных до остальных
+ * пост-процессоров, поэтому с read-replicas.enabled=true он оказывается внутри маршрутизатора и
+ * LazyConnectionDataSourceProxy, а разрешение берётся только при реальном обращении к основной БД.
+ */
+@Slf4j
+@Profile("virtual")
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${virtual-threads.db-permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${virtual-threads.db-acquire-timeout:PT30S}") Duration acquireTimeout) {
+        return new ConnectionLimitingDataSourcePostProcessor(permits, acquireTimeout);
+    }
+
+    private record ConnectionLimitingDataSourcePostProcessor(int permits, Duration acquireTimeout)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                log.info("Источник данных {} ограничен {} одновременными соединениями", beanName, permits);
+                return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package edu.online.messenger.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Бинарные форматы для вызовов между сервисами: application/cbor и application/x-jackson-smile по заголовку Accept
+ * (и Content-Type для тел запросов). Конвертеры встают на места стандартных после JSON, поэтому без Accept или
+ * с Accept: *&#47;* ответ по-прежнему в JSON. ObjectMapper собирается тем же Jackson2ObjectMapperBuilder, что
+ * и для JSON, чтобы даты и модули сериализовались одинаково во всех форматах; INDENT_OUTPUT из application.yml
+ * к бинарным форматам отношения не имеет и выключается.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).indentOutput(false).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).indentOutput(false).build());
+    }
+}
\ No newline at end of file
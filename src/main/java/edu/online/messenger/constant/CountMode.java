@@ -0,0 +1,7 @@
+package edu.online.messenger.constant;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE
+}
\ No newline at end of file
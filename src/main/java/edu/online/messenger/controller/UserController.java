@@ -1,5 +1,6 @@
 package edu.online.messenger.controller;
 
+import edu.online.messenger.constant.CountMode;
 import edu.online.messenger.model.dto.AddressCreateDto;
 import edu.online.messenger.model.dto.AddressDto;
 import edu.online.messenger.model.dto.UserDto;
@@ -7,28 +8,64 @@ import edu.online.messenger.model.dto.UserInfoDto;
 import edu.online.messenger.model.dto.page.PageContentDto;
 import edu.online.messenger.model.dto.page.PageParamDto;
 import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.model.entity.dto.AddressListVersion;
+import edu.online.messenger.model.entity.dto.CursorPageContentDto;
+import edu.online.messenger.model.entity.dto.PasswordCheckDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.model.entity.dto.UserBulkResultDto;
+import edu.online.messenger.model.entity.dto.UserExistenceRequestDto;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
 import edu.online.messenger.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
-@AllArgsConstructor
 public class UserController {
 
+    private static final String WEAK = "W/";
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+    private static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+    private static final List<MediaType> EXISTENCE_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, SMILE, MediaType.APPLICATION_OCTET_STREAM);
+
     private final UserService userService;
+    private final Duration exportTimeout;
+
+    public UserController(UserService userService,
+                          @Value("${user-export.timeout:PT1H}") Duration exportTimeout) {
+        this.userService = userService;
+        this.exportTimeout = exportTimeout;
+    }
 
     @GetMapping("existence/id/{userId}")
     @ResponseStatus(HttpStatus.OK)
@@ -42,22 +79,91 @@ public class UserController {
         return userService.existsByLogin(login);
     }
 
+    /**
+     * Формат ответа выбирается по q из Accept; при равных q побеждает тип, стоящий раньше в EXISTENCE_TYPES,
+     * поэтому Accept: *&#47;* даёт JSON, а битовая карта отдаётся, только если octet-stream предпочтён явно.
+     * Некорректный Accept - 406, а не 500.
+     */
+    @PostMapping(value = "/existence", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            SMILE_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> existsByIds(@Valid @RequestBody UserExistenceRequestDto userExistenceRequestDto,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT,
+                                                 defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+        MediaType mediaType = null;
+        double bestQuality = 0;
+        for (MediaType producibleType : EXISTENCE_TYPES) {
+            double quality = quality(acceptedTypes, producibleType);
+            if (quality > bestQuality) {
+                mediaType = producibleType;
+                bestQuality = quality;
+            }
+        }
+        if (mediaType == null) {
+            throw new HttpMediaTypeNotAcceptableException(EXISTENCE_TYPES);
+        }
+        List<Long> ids = userExistenceRequestDto.ids();
+        BitSet bitmap = userService.existsByIds(ids);
+        if (mediaType == MediaType.APPLICATION_OCTET_STREAM) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(Arrays.copyOf(bitmap.toByteArray(), (ids.size() + 7) / 8));
+        }
+        Map<Long, Boolean> existence = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            existence.put(ids.get(i), bitmap.get(i));
+        }
+        return ResponseEntity.ok().contentType(mediaType).body(existence);
+    }
+
     @GetMapping("/login/{login}")
     @ResponseStatus(HttpStatus.OK)
     public UserDto getUserByLogin(@PathVariable String login) {
         return userService.getUserByLogin(login);
     }
 
+    /**
+     * Тело и версия для ETag берутся одним обращением к кешу (или одним запросом), поэтому всегда согласованы.
+     * Один и тот же ETag отдаётся для JSON, CBOR и Smile, поэтому он слабый (W/): представления
+     * равнозначны по содержанию, но не побайтно. Vary: Accept не даёт кешам смешивать форматы.
+     */
     @GetMapping("/{id}")
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        VersionedUserDto versionedUser = userService.getVersionedUserById(id);
+        String eTag = "\"user-" + id + "-" + versionedUser.version() + "\"";
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(WEAK + eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(WEAK + eTag).varyBy(HttpHeaders.ACCEPT).body(versionedUser.user());
+    }
+
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.OK)
-    public UserDto getUserById(@PathVariable Long id) {
-        return userService.getUserById(id);
+    public UserBatchDto getUsers(@Valid @RequestBody UserBatchRequestDto userBatchRequestDto) {
+        return userService.getUsers(userBatchRequestDto);
     }
 
     @GetMapping("/address/{userId}")
-    @ResponseStatus(HttpStatus.OK)
-    public List<AddressDto> getAddressListByUserId(@PathVariable Long userId) {
-        return userService.getAddressListByUserId(userId);
+    public ResponseEntity<List<AddressDto>> getAddressListByUserId(@PathVariable Long userId,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                           required = false) String ifNoneMatch) {
+        AddressListVersion version = userService.getAddressListVersion(userId);
+        String eTag = "\"addresses-" + userId + "-" + version.digest() + "\"";
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(WEAK + eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(WEAK + eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(userService.getAddressListByUserId(userId));
     }
 
     @GetMapping
@@ -71,19 +177,86 @@ public class UserController {
                                            @RequestParam(value = "street", required = false) String street,
                                            @RequestParam(value = "house", required = false) String house,
                                            @RequestParam(value = "housing", required = false) String housing,
-                                           @RequestParam(value = "apartment", required = false) String apartment
+                                           @RequestParam(value = "apartment", required = false) String apartment,
+                                           @RequestParam(value = "count", required = false, defaultValue = "exact") CountMode count
     ) {
         return userService.findAll(
                 new PageParamDto(pageNumber, pageSize),
+                new AddressFilterDto(country, postalCode, city, street, house, housing, apartment),
+                count);
+    }
+
+    @GetMapping(params = "after")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageContentDto<UserDto> findAllAfter(@RequestParam(value = "after") String after,
+                                                      @RequestParam(value = "pageSize", required = false, defaultValue = "15")
+                                                      @Min(1) @Max(100) int pageSize,
+                                                      @RequestParam(value = "country", required = false) String country,
+                                                      @RequestParam(value = "postalCode", required = false) String postalCode,
+                                                      @RequestParam(value = "city", required = false) String city,
+                                                      @RequestParam(value = "street", required = false) String street,
+                                                      @RequestParam(value = "house", required = false) String house,
+                                                      @RequestParam(value = "housing", required = false) String housing,
+                                                      @RequestParam(value = "apartment", required = false) String apartment
+    ) {
+        return userService.findAllAfter(
+                after,
+                pageSize,
                 new AddressFilterDto(country, postalCode, city, street, house, housing, apartment));
     }
 
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserDto> searchByAddress(@RequestParam("q") @Size(min = 3, max = 100) String q,
+                                         @RequestParam(value = "limit", required = false, defaultValue = "20")
+                                         @Min(1) @Max(100) int limit) {
+        return userService.searchByAddress(q, limit);
+    }
+
+    /**
+     * Выгрузка пишется в ответ внутри асинхронной задачи с собственным таймаутом user-export.timeout,
+     * остальные асинхронные запросы работают с таймаутом по умолчанию.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> export(@RequestParam(value = "withAddresses", required = false, defaultValue = "false") boolean withAddresses,
+                                     @RequestParam(value = "country", required = false) String country,
+                                     @RequestParam(value = "postalCode", required = false) String postalCode,
+                                     @RequestParam(value = "city", required = false) String city,
+                                     @RequestParam(value = "street", required = false) String street,
+                                     @RequestParam(value = "house", required = false) String house,
+                                     @RequestParam(value = "housing", required = false) String housing,
+                                     @RequestParam(value = "apartment", required = false) String apartment,
+                                     HttpServletResponse response
+    ) {
+        AddressFilterDto addressFilterDto =
+                new AddressFilterDto(country, postalCode, city, street, house, housing, apartment);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            userService.export(addressFilterDto, withAddresses, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public UserDto save(@Valid @RequestBody UserInfoDto userInfoDto) {
         return userService.save(userInfoDto);
     }
 
+    @PostMapping("/password/check")
+    @ResponseStatus(HttpStatus.OK)
+    public boolean checkPassword(@Valid @RequestBody PasswordCheckDto passwordCheckDto) {
+        return userService.checkPassword(passwordCheckDto);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public UserBulkResultDto saveAll(@RequestBody @Size(max = 1000, message = "Не более 1000 пользователей в одном запросе")
+                                     List<UserInfoDto> userInfoDtoList) {
+        return userService.saveAll(userInfoDtoList);
+    }
+
     @PostMapping("/address")
     @ResponseStatus(HttpStatus.CREATED)
     public AddressDto addAddressByUserId(@Valid @RequestBody AddressCreateDto addressCreateDto) {
@@ -101,4 +274,44 @@ public class UserController {
     public void deleteUserById(@PathVariable Long id) {
         userService.deleteUserById(id);
     }
+
+    /**
+     * q типа по самому специфичному диапазону Accept, который его включает (RFC 9110, 12.5.1), 0 - если ни один.
+     */
+    private static double quality(List<MediaType> acceptedTypes, MediaType mediaType) {
+        MediaType best = null;
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.includes(mediaType) && (best == null || specificity(acceptedType) > specificity(best))) {
+                best = acceptedType;
+            }
+        }
+        return best == null ? 0 : best.getQualityValue();
+    }
+
+    private static int specificity(MediaType mediaType) {
+        return mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+
+    /**
+     * If-None-Match сравнивается слабым сравнением (RFC 9110, 13.1.2): префикс W/ игнорируется,
+     * заголовок может содержать список ETag через запятую или *.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith(WEAK)) {
+                value = value.substring(2);
+            }
+            if (value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package edu.online.messenger.converter;
+
+import edu.online.messenger.constant.CountMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+public class StringToCountModeConverter implements Converter<String, CountMode> {
+
+    @Override
+    public CountMode convert(String source) {
+        return CountMode.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
\ No newline at end of file
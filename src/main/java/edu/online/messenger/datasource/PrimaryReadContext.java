@@ -0,0 +1,31 @@
+package edu.online.messenger.datasource;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+/**
+ * Принудительное чтение с основной БД в текущем потоке, даже внутри read-only транзакции.
+ * Проверяется {@link ReplicaRoutingDataSource} при выдаче соединения.
+ */
+@UtilityClass
+public class PrimaryReadContext {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    public static <T> T onPrimary(Supplier<T> reader) {
+        if (isForced()) {
+            return reader.get();
+        }
+        FORCED.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package edu.online.messenger.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Запоминает недавно изменённых пользователей (по id и логину) на время read-replicas.read-your-writes-window,
+ * чтобы их чтение шло на основную БД, пока реплика может ещё не содержать изменение.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final boolean enabled;
+    private final Cache<Object, Boolean> recentWrites;
+
+    public ReadYourWritesTracker(@Value("${read-replicas.enabled:false}") boolean enabled,
+                                 @Value("${read-replicas.read-your-writes-window:PT10S}") Duration window,
+                                 @Value("${read-replicas.read-your-writes-maximum-size:100000}") long maximumSize) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void markWritten(Object key) {
+        if (enabled && key != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecentlyWritten(Object key) {
+        return enabled && key != null && recentWrites.getIfPresent(key) != null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package edu.online.messenger.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Периодически проверяет доступность и отставание реплик; число доступных - в метрике read.replicas.available.
+ */
+@Component
+@ConditionalOnProperty(name = "read-replicas.enabled", havingValue = "true")
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaHealthChecker(DataSource dataSource, MeterRegistry meterRegistry) throws SQLException {
+        this.routingDataSource = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        Gauge.builder("read.replicas.available", routingDataSource, ReplicaRoutingDataSource::availableReplicas)
+                .description("Количество реплик, доступных для чтения")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${read-replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas();
+    }
+}
\ No newline at end of file
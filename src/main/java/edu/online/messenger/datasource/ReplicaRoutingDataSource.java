@@ -0,0 +1,161 @@
+package edu.online.messenger.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Выдаёт соединения read-only транзакций с реплик по кругу, остальные - с основной БД. Реплика исключается
+ * из выбора, если проверка {@link #checkReplicas()} не прошла или её отставание больше maxLag, и при ошибке
+ * получения соединения; если доступных реплик нет, читаем с основной БД. Реплика считается догнавшей, только
+ * если воспроизвела WAL до позиции основной БД, снятой перед проверкой: равенство принятой и воспроизведённой
+ * позиций на самой реплике выполняется и тогда, когда она перестала получать WAL.
+ * <p>
+ * Признак read-only транзакции выставляется после получения соединения менеджером транзакций, поэтому
+ * источник используется за {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 'Infinity') END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Проверяет доступность и отставание каждой реплики. Вызывается по расписанию и при старте.
+     */
+    public void checkReplicas() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_SQL)) {
+            resultSet.next();
+            primaryLsn = resultSet.getString(1);
+        } catch (SQLException e) {
+            log.warn("Не удалось получить позицию WAL основной БД, отставание реплик не проверить: {}", e.getMessage());
+            replicas.forEach(replica -> replica.available = false);
+            return;
+        }
+        replicas.forEach(replica -> check(replica, primaryLsn));
+    }
+
+    public int availableReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryReadContext.isForced()) {
+            return source.get(primary);
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return source.get(replica.dataSource);
+            } catch (SQLException e) {
+                replica.available = false;
+                log.warn("Реплика {} недоступна, исключена до следующей проверки: {}", replica.name, e.getMessage());
+            }
+        }
+        return source.get(primary);
+    }
+
+    private void check(Replica replica, String primaryLsn) {
+        boolean available;
+        try (Connection connection = replica.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+            statement.setString(1, primaryLsn);
+            double lagMillis;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                lagMillis = resultSet.getDouble(1);
+            }
+            available = lagMillis <= maxLag.toMillis();
+            if (!available) {
+                log.warn("Реплика {} отстаёт на {} мс, допустимо {}", replica.name, lagMillis, maxLag);
+            }
+        } catch (SQLException e) {
+            available = false;
+            log.warn("Проверка реплики {} не прошла: {}", replica.name, e.getMessage());
+        }
+        if (available && !replica.available) {
+            log.info("Реплика {} снова доступна для чтения", replica.name);
+        }
+        replica.available = available;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
\ No newline at end of file
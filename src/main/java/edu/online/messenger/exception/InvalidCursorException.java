@@ -0,0 +1,8 @@
+package edu.online.messenger.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Некорректный курсор постраничного вывода: " + cursor);
+    }
+}
\ No newline at end of file
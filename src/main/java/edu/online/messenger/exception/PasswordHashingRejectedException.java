@@ -0,0 +1,8 @@
+package edu.online.messenger.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(Throwable cause) {
+        super("Сервис перегружен, повторите запрос позже", cause);
+    }
+}
\ No newline at end of file
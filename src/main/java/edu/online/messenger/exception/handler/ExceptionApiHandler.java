@@ -1,9 +1,13 @@
 package edu.online.messenger.exception.handler;
 
+import edu.online.messenger.exception.InvalidCursorException;
+import edu.online.messenger.exception.PasswordHashingRejectedException;
 import edu.online.messenger.exception.UserNotFoundException;
 import edu.online.messenger.model.dto.dto.ErrorDto;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -21,9 +25,16 @@ public class ExceptionApiHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ExceptionApiHandler.class);
 
+    private final MeterRegistry meterRegistry;
+
+    public ExceptionApiHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorDto> handleMismatchException(MethodArgumentTypeMismatchException e) {
         log.error(e.getMessage());
+        countError(e, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(new ErrorDto(e.getMessage(), HttpStatus.BAD_REQUEST.value()),
                 HttpStatus.BAD_REQUEST);
     }
@@ -31,19 +42,39 @@ public class ExceptionApiHandler {
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorDto> handleUserNotFoundException(UserNotFoundException e) {
         log.error(e.getLocalizedMessage());
+        countError(e, HttpStatus.NOT_FOUND);
         return new ResponseEntity<>(new ErrorDto(e.getMessage(), HttpStatus.NOT_FOUND.value()),
                 HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursorException(InvalidCursorException e) {
+        log.error(e.getMessage());
+        countError(e, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(new ErrorDto(e.getMessage(), HttpStatus.BAD_REQUEST.value()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorDto> handlePasswordHashingRejectedException(PasswordHashingRejectedException e) {
+        log.warn(e.getMessage());
+        countError(e, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDto(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorDto> handleUserNotFoundException(HttpMessageNotReadableException e) {
         log.error(e.getLocalizedMessage());
+        countError(e, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(new ErrorDto(e.getLocalizedMessage(), HttpStatus.BAD_REQUEST.value()),
                 HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException e) {
+        countError(e, HttpStatus.BAD_REQUEST);
         Map<String, String> errors = new HashMap<>();
         e.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -53,4 +84,10 @@ public class ExceptionApiHandler {
         });
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
+
+    private void countError(Exception e, HttpStatus status) {
+        meterRegistry.counter("user.api.errors",
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
\ No newline at end of file
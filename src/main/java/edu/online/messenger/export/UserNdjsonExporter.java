@@ -0,0 +1,159 @@
+package edu.online.messenger.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.specification.AddressFilterSql;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+public class UserNdjsonExporter {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String USER_COLUMNS =
+            "u.id, u.login, u.role, u.create_date, u.last_visit_date";
+    private static final String ADDRESS_COLUMNS =
+            ", ad.id AS address_id, ad.apartment, ad.housing, ad.house, ad.street, ad.city, ad.postal_code, ad.country";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+
+    public UserNdjsonExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void export(AddressFilterDto filter, boolean withAddresses, OutputStream outputStream) throws IOException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(USER_COLUMNS);
+        if (withAddresses) {
+            sql.append(ADDRESS_COLUMNS).append(" FROM users u LEFT JOIN address ad ON ad.user_id = u.id");
+        } else {
+            sql.append(" FROM users u");
+        }
+        if (AddressFilterSql.hasConditions(filter)) {
+            sql.append(" WHERE ").append(AddressFilterSql.existsClause(filter, "u.id", params));
+        }
+        sql.append(withAddresses ? " ORDER BY u.id, ad.id" : " ORDER BY u.id");
+
+        long startedAt = System.currentTimeMillis();
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            NdjsonRowWriter rowWriter = new NdjsonRowWriter(generator, withAddresses);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString());
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, rowWriter));
+            rowWriter.finish();
+            log.info("Выгружено {} пользователей за {} мс", rowWriter.exportedUsers,
+                    System.currentTimeMillis() - startedAt);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+        private final boolean withAddresses;
+        private Long currentUserId;
+        private long exportedUsers;
+
+        private NdjsonRowWriter(JsonGenerator generator, boolean withAddresses) {
+            this.generator = generator;
+            this.withAddresses = withAddresses;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            try {
+                long userId = resultSet.getLong("id");
+                if (currentUserId == null || currentUserId != userId) {
+                    finish();
+                    writeUser(resultSet);
+                    currentUserId = userId;
+                }
+                if (withAddresses && resultSet.getObject("address_id") != null) {
+                    writeAddress(resultSet, userId);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            if (currentUserId == null) {
+                return;
+            }
+            if (withAddresses) {
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            exportedUsers++;
+            currentUserId = null;
+        }
+
+        private void writeUser(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", resultSet.getLong("id"));
+            generator.writeStringField("login", resultSet.getString("login"));
+            generator.writeStringField("role", resultSet.getString("role"));
+            writeTimestamp("createDate", resultSet.getTimestamp("create_date"));
+            writeTimestamp("lastVisitDate", resultSet.getTimestamp("last_visit_date"));
+            if (withAddresses) {
+                generator.writeArrayFieldStart("addresses");
+            }
+        }
+
+        private void writeAddress(ResultSet resultSet, long userId) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", resultSet.getLong("address_id"));
+            generator.writeNumberField("userId", userId);
+            Object apartment = resultSet.getObject("apartment");
+            if (apartment == null) {
+                generator.writeNullField("apartment");
+            } else {
+                generator.writeNumberField("apartment", ((Number) apartment).intValue());
+            }
+            generator.writeStringField("housing", resultSet.getString("housing"));
+            generator.writeNumberField("house", resultSet.getInt("house"));
+            generator.writeStringField("street", resultSet.getString("street"));
+            generator.writeStringField("city", resultSet.getString("city"));
+            generator.writeStringField("postalCode", resultSet.getString("postal_code"));
+            generator.writeStringField("country", resultSet.getString("country"));
+            generator.writeEndObject();
+        }
+
+        private void writeTimestamp(String fieldName, Timestamp timestamp) throws IOException {
+            if (timestamp == null) {
+                generator.writeNullField(fieldName);
+            } else {
+                generator.writeStringField(fieldName,
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime()));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package edu.online.messenger.grpc;
+
+import edu.online.messenger.exception.InvalidDataException;
+import edu.online.messenger.exception.PasswordHashingRejectedException;
+import edu.online.messenger.exception.UserNotFoundException;
+import edu.online.messenger.grpc.proto.ExistsBatchRequest;
+import edu.online.messenger.grpc.proto.ExistsBatchResponse;
+import edu.online.messenger.grpc.proto.ExistsResponse;
+import edu.online.messenger.grpc.proto.User;
+import edu.online.messenger.grpc.proto.UserBatchRequest;
+import edu.online.messenger.grpc.proto.UserBatchResponse;
+import edu.online.messenger.grpc.proto.UserIdRequest;
+import edu.online.messenger.grpc.proto.UserLoginRequest;
+import edu.online.messenger.grpc.proto.UserLookupServiceGrpc;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.service.UserService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * gRPC-доступ к операциям {@link UserService} для других сервисов мессенджера. Потоковые методы держат одно
+ * HTTP/2-соединение и отвечают на каждый входящий пакет отдельным сообщением; ошибка в пакете завершает поток
+ * со статусом, соответствующим исключению.
+ */
+@Slf4j
+@GrpcService
+@AllArgsConstructor
+public class UserLookupGrpcService extends UserLookupServiceGrpc.UserLookupServiceImplBase {
+
+    static final int MAX_EXISTENCE_BATCH = 10000;
+    static final int MAX_LOOKUP_BATCH = 1000;
+
+    private final UserService userService;
+
+    @Override
+    public void existsById(UserIdRequest request, StreamObserver<ExistsResponse> responseObserver) {
+        unary(responseObserver, () -> ExistsResponse.newBuilder()
+                .setExists(userService.existsById(request.getId()))
+                .build());
+    }
+
+    @Override
+    public void existsByLogin(UserLoginRequest request, StreamObserver<ExistsResponse> responseObserver) {
+        unary(responseObserver, () -> ExistsResponse.newBuilder()
+                .setExists(userService.existsByLogin(request.getLogin()))
+                .build());
+    }
+
+    @Override
+    public void getUserById(UserIdRequest request, StreamObserver<User> responseObserver) {
+        unary(responseObserver, () -> toProto(userService.getUserById(request.getId())));
+    }
+
+    @Override
+    public void getUserByLogin(UserLoginRequest request, StreamObserver<User> responseObserver) {
+        unary(responseObserver, () -> toProto(userService.getUserByLogin(request.getLogin())));
+    }
+
+    @Override
+    public StreamObserver<ExistsBatchRequest> streamExistsByIds(StreamObserver<ExistsBatchResponse> responseObserver) {
+        return new BatchObserver<>(responseObserver, request -> {
+            List<Long> ids = request.getIdsList();
+            checkBatchSize(ids.size(), MAX_EXISTENCE_BATCH, "id");
+            BitSet bitmap = userService.existsByIds(ids);
+            ExistsBatchResponse.Builder response = ExistsBatchResponse.newBuilder();
+            for (int i = 0; i < ids.size(); i++) {
+                response.addExists(bitmap.get(i));
+            }
+            return response.build();
+        });
+    }
+
+    @Override
+    public StreamObserver<UserBatchRequest> streamGetUsers(StreamObserver<UserBatchResponse> responseObserver) {
+        return new BatchObserver<>(responseObserver, request -> {
+            checkBatchSize(request.getIdsCount(), MAX_LOOKUP_BATCH, "id");
+            checkBatchSize(request.getLoginsCount(), MAX_LOOKUP_BATCH, "логинов");
+            UserBatchDto userBatchDto = userService.getUsers(
+                    new UserBatchRequestDto(request.getIdsList(), request.getLoginsList()));
+            Map<Long, UserDto> users = new LinkedHashMap<>(userBatchDto.usersById());
+            userBatchDto.usersByLogin().values().forEach(userDto -> users.putIfAbsent(userDto.getId(), userDto));
+            UserBatchResponse.Builder response = UserBatchResponse.newBuilder()
+                    .addAllMissingIds(userBatchDto.missingIds())
+                    .addAllMissingLogins(userBatchDto.missingLogins());
+            users.values().forEach(userDto -> response.addUsers(toProto(userDto)));
+            return response.build();
+        });
+    }
+
+    static User toProto(UserDto userDto) {
+        return User.newBuilder()
+                .setId(userDto.getId())
+                .setLogin(userDto.getLogin())
+                .setRole(userDto.getRole() == null ? "" : userDto.getRole().name())
+                .setCreateDate(format(userDto.getCreateDate()))
+                .setLastVisitDate(format(userDto.getLastVisitDate()))
+                .build();
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? "" : dateTime.toString();
+    }
+
+    private static void checkBatchSize(int size, int max, String what) {
+        if (size > max) {
+            throw Status.INVALID_ARGUMENT
+                    .withDescription("Не более " + max + " " + what + " в одном пакете")
+                    .asRuntimeException();
+        }
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        if (e instanceof UserNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof InvalidDataException || e instanceof ValidationException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof PasswordHashingRejectedException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("Ошибка при обработке gRPC-запроса", e);
+        return Status.INTERNAL.withDescription("Внутренняя ошибка сервиса").asRuntimeException();
+    }
+
+    /**
+     * Обрабатывает входящие пакеты по одному в порядке поступления: следующий пакет gRPC доставляет только
+     * после возврата из onNext, поэтому клиент, шлющий быстрее, чем отвечает БД, упирается в управление
+     * потоком HTTP/2, а не в очередь на сервере.
+     */
+    private static final class BatchObserver<Q, R> implements StreamObserver<Q> {
+
+        private final StreamObserver<R> responseObserver;
+        private final Function<Q, R> handler;
+        private boolean failed;
+
+        BatchObserver(StreamObserver<R> responseObserver, Function<Q, R> handler) {
+            this.responseObserver = responseObserver;
+            this.handler = handler;
+        }
+
+        @Override
+        public void onNext(Q request) {
+            if (failed) {
+                return;
+            }
+            R response;
+            try {
+                response = handler.apply(request);
+            } catch (RuntimeException e) {
+                failed = true;
+                responseObserver.onError(toStatus(e));
+                return;
+            }
+            responseObserver.onNext(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Клиент прервал поток: {}", Status.fromThrowable(t));
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!failed) {
+                responseObserver.onCompleted();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.online.messenger.mapper;
 import edu.online.messenger.model.dto.AddressCreateDto;
 import edu.online.messenger.model.dto.AddressDto;
 import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.dto.AddressView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,4 +14,6 @@ public interface AddressMapper {
 
     @Mapping(source = "user.id", target = "userId")
     AddressDto toDto(Address address);
+
+    AddressDto toDto(AddressView addressView);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.online.messenger.mapper;
 import edu.online.messenger.model.dto.UserDto;
 import edu.online.messenger.model.dto.UserInfoDto;
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.UserView;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
@@ -11,4 +12,6 @@ public interface UserMapper {
     UserDto toDto(User user);
 
     User toUser(UserInfoDto userInfoDto);
+
+    UserDto toDto(UserView userView);
 }
\ No newline at end of file
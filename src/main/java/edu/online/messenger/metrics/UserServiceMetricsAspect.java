@@ -0,0 +1,64 @@
+package edu.online.messenger.metrics;
+
+import edu.online.messenger.exception.InvalidCursorException;
+import edu.online.messenger.exception.InvalidDataException;
+import edu.online.messenger.exception.PasswordHashingRejectedException;
+import edu.online.messenger.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ValidationException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Замеряет время каждого метода {@link edu.online.messenger.service.UserService} в таймер user.service
+ * с тегами method и outcome: success, not_found, invalid, rejected или error.
+ */
+@Aspect
+@Component
+public class UserServiceMetricsAspect {
+
+    static final String TIMER_NAME = "user.service";
+
+    private final MeterRegistry meterRegistry;
+
+    public UserServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* edu.online.messenger.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Время выполнения методов UserService")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcome(Throwable e) {
+        if (e instanceof UserNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof InvalidDataException || e instanceof InvalidCursorException
+                || e instanceof ValidationException) {
+            return "invalid";
+        }
+        if (e instanceof PasswordHashingRejectedException) {
+            return "rejected";
+        }
+        return "error";
+    }
+}
\ No newline at end of file
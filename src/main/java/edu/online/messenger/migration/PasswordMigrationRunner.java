@@ -1,29 +1,206 @@
 package edu.online.messenger.migration;
 
-import edu.online.messenger.repository.UserRepository;
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.scheduler.SchedulerLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Хеширует BCrypt'ом пароли, сохранённые в открытом виде. Пользователи читаются порциями по возрастанию id,
+ * пароли порции хешируются на всех ядрах, изменённые строки записываются одним пакетным UPDATE вместе с
+ * контрольной точкой, поэтому перезапущенный экземпляр продолжает с последнего обработанного id.
+ * Миграцию выполняет только экземпляр, получивший блокировку password-migration; завершённая миграция
+ * запускается заново, если после неё появились пароли в открытом виде.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "password-migration.enabled", havingValue = "true")
 public class PasswordMigrationRunner implements CommandLineRunner {
-    private final UserRepository userRepository;
+
+    private static final String CHECKPOINT_NAME = "bcrypt";
+    private static final String LOCK_NAME = "password-migration";
+
+    private final JdbcTemplate jdbcTemplate;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+    private final Duration lockAtMostFor;
 
-    public PasswordMigrationRunner(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public PasswordMigrationRunner(JdbcTemplate jdbcTemplate, BCryptPasswordEncoder passwordEncoder,
+                                   UserCache userCache, SchedulerLock schedulerLock,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${password-migration.chunk-size:1000}") int chunkSize,
+                                   @Value("${password-migration.threads:0}") int threads,
+                                   @Value("${password-migration.lock-at-most-for:PT6H}") Duration lockAtMostFor) {
+        this.jdbcTemplate = jdbcTemplate;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.schedulerLock = schedulerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.lockAtMostFor = lockAtMostFor;
     }
 
     @Override
-    public void run(String... args) {
-        userRepository.findAll().forEach(user -> {
-            String pwd = user.getPassword();
-            // Если пароль не bcrypt
-            if (pwd != null && !pwd.startsWith("$2a$") && !pwd.startsWith("$2b$") && !pwd.startsWith("$2y$")) {
-                user.setPassword(passwordEncoder.encode(pwd));
-                System.out.println("Захеширован пароль для пользователя: " + user.getLogin());
+    public void run(String... args) throws InterruptedException {
+        if (!schedulerLock.tryLock(LOCK_NAME, lockAtMostFor)) {
+            log.info("Миграция паролей выполняется другим экземпляром");
+            return;
+        }
+        try {
+            migrate();
+        } finally {
+            schedulerLock.unlock(LOCK_NAME);
+        }
+    }
+
+    private void migrate() throws InterruptedException {
+        Checkpoint checkpoint = loadCheckpoint();
+        if (checkpoint.completed()) {
+            if (!hasPlainPasswords()) {
+                log.info("Миграция паролей уже завершена, мигрировано {} паролей", checkpoint.migrated());
+                return;
+            }
+            log.info("После завершения миграции появились пароли в открытом виде, миграция начинается заново");
+            checkpoint = restartCheckpoint(checkpoint);
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        log.info("Миграция паролей: начало с id > {}, максимальный id {}, порция {}, потоков {}",
+                checkpoint.lastId(), maxId, chunkSize, threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long startedAt = System.currentTimeMillis();
+        long scanned = 0;
+        long lastId = checkpoint.lastId();
+        long migrated = checkpoint.migrated();
+        try {
+            List<StoredPassword> chunk;
+            while (!(chunk = loadChunk(lastId)).isEmpty()) {
+                List<StoredPassword> plain = chunk.stream().filter(StoredPassword::isPlain).toList();
+                List<String> encoded = encode(executor, plain);
+                lastId = chunk.get(chunk.size() - 1).id();
+                migrated += writeChunk(plain, encoded, lastId, migrated);
+                userCache.evictAllById(plain.stream().map(StoredPassword::id).toList());
+                scanned += chunk.size();
+                long elapsed = Math.max(System.currentTimeMillis() - startedAt, 1);
+                log.info("Миграция паролей: id {} из {} ({}%), просмотрено {}, мигрировано {}, {} польз./с",
+                        lastId, maxId, maxId == 0 ? 100 : lastId * 100 / maxId, scanned, migrated,
+                        scanned * 1000 / elapsed);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        jdbcTemplate.update("UPDATE password_migration_checkpoint SET completed = true, updated_at = ? WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.now()), CHECKPOINT_NAME);
+        userCache.invalidateAll();
+        log.info("Миграция паролей завершена: просмотрено {}, всего мигрировано {}, {} мс",
+                scanned, migrated, System.currentTimeMillis() - startedAt);
+    }
+
+    private Checkpoint loadCheckpoint() {
+        jdbcTemplate.update("INSERT INTO password_migration_checkpoint (name, last_id, migrated, completed, updated_at) "
+                        + "VALUES (?, 0, 0, false, ?) ON CONFLICT (name) DO NOTHING",
+                CHECKPOINT_NAME, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject(
+                "SELECT last_id, migrated, completed FROM password_migration_checkpoint WHERE name = ?",
+                (rs, rowNum) -> new Checkpoint(rs.getLong("last_id"), rs.getLong("migrated"), rs.getBoolean("completed")),
+                CHECKPOINT_NAME);
+    }
+
+    private boolean hasPlainPasswords() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM users "
+                + "WHERE password NOT LIKE '$2a$%' AND password NOT LIKE '$2b$%' AND password NOT LIKE '$2y$%')",
+                Boolean.class));
+    }
+
+    private Checkpoint restartCheckpoint(Checkpoint checkpoint) {
+        jdbcTemplate.update("UPDATE password_migration_checkpoint SET last_id = 0, completed = false, updated_at = ? "
+                + "WHERE name = ?", Timestamp.valueOf(LocalDateTime.now()), CHECKPOINT_NAME);
+        return new Checkpoint(0, checkpoint.migrated(), false);
+    }
+
+    private List<StoredPassword> loadChunk(long afterId) {
+        return jdbcTemplate.query("SELECT id, password FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new StoredPassword(rs.getLong("id"), rs.getString("password")),
+                afterId, chunkSize);
+    }
+
+    private List<String> encode(ExecutorService executor, List<StoredPassword> plain) throws InterruptedException {
+        if (plain.isEmpty()) {
+            return List.of();
+        }
+        int partSize = (plain.size() + threads - 1) / threads;
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int from = 0; from < plain.size(); from += partSize) {
+            List<StoredPassword> part = plain.subList(from, Math.min(from + partSize, plain.size()));
+            tasks.add(() -> part.stream().map(stored -> passwordEncoder.encode(stored.password())).toList());
+        }
+        List<String> encoded = new ArrayList<>(plain.size());
+        for (Future<List<String>> future : executor.invokeAll(tasks)) {
+            try {
+                encoded.addAll(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ошибка хеширования пароля", e.getCause());
             }
+        }
+        return encoded;
+    }
+
+    /**
+     * Обновляет только строки с изменённым паролем; условие на старое значение пароля не даёт затереть
+     * пароль, сменённый пользователем во время миграции.
+     */
+    private int writeChunk(List<StoredPassword> plain, List<String> encoded, long chunkLastId, long migratedBefore) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int count = 0;
+            if (!plain.isEmpty()) {
+                List<Object[]> args = new ArrayList<>(plain.size());
+                for (int i = 0; i < plain.size(); i++) {
+                    args.add(new Object[]{encoded.get(i), plain.get(i).id(), plain.get(i).password()});
+                }
+                for (int rows : jdbcTemplate.batchUpdate(
+                        "UPDATE users SET password = ?, version = version + 1 WHERE id = ? AND password = ?", args)) {
+                    count += Math.max(rows, 0);
+                }
+            }
+            jdbcTemplate.update("UPDATE password_migration_checkpoint SET last_id = ?, migrated = ?, updated_at = ? "
+                            + "WHERE name = ?",
+                    chunkLastId, migratedBefore + count, Timestamp.valueOf(LocalDateTime.now()), CHECKPOINT_NAME);
+            return count;
         });
-        userRepository.saveAll(userRepository.findAll());
-        System.out.println("Миграция паролей завершена.");
+        return updated == null ? 0 : updated;
+    }
+
+    private record Checkpoint(long lastId, long migrated, boolean completed) {
+    }
+
+    private record StoredPassword(long id, String password) {
+
+        boolean isPlain() {
+            return password != null && !password.startsWith("$2a$") && !password.startsWith("$2b$")
+                    && !password.startsWith("$2y$");
+        }
     }
 }
\ No newline at end of file
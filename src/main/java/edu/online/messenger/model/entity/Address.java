@@ -3,8 +3,12 @@ package edu.online.messenger.model.entity;
 import edu.online.messenger.model.entity.parent.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,9 +17,12 @@ import lombok.Setter;
 @Setter
 @Entity
 @NoArgsConstructor
+@NamedEntityGraph(name = Address.WITH_USER_GRAPH, attributeNodes = @NamedAttributeNode("user"))
 public class Address extends BaseEntity {
 
-    @ManyToOne
+    public static final String WITH_USER_GRAPH = "Address.user";
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -36,4 +43,7 @@ public class Address extends BaseEntity {
 
     @Column(nullable = false)
     private String country;
+
+    @Version
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package edu.online.messenger.model.entity.dto;
+
+/**
+ * Версия списка адресов пользователя без загрузки самих адресов: md5 от упорядоченных по id пар id:version.
+ * Агрегаты вроде count/max(id) не годятся: id выдаются блоками pooled-lo на каждый экземпляр, и адрес с меньшим id
+ * может заменить удалённый, не изменив ни количества, ни максимума.
+ */
+public record AddressListVersion(
+        String digest
+) {
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package edu.online.messenger.model.entity.dto;
+
+public record AddressView(
+        Long id,
+        Long userId,
+        Integer apartment,
+        String housing,
+        int house,
+        String street,
+        String city,
+        String postalCode,
+        String country
+) {
+}
\ No newline at end of file
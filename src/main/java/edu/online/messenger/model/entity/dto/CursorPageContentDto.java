@@ -0,0 +1,10 @@
+package edu.online.messenger.model.entity.dto;
+
+import java.util.List;
+
+public record CursorPageContentDto<T>(
+        int pageSize,
+        String nextCursor,
+        List<T> content
+) {
+}
\ No newline at end of file
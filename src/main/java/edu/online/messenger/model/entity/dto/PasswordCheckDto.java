@@ -0,0 +1,11 @@
+package edu.online.messenger.model.entity.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record PasswordCheckDto(
+        @NotBlank(message = "Логин не может быть пустым")
+        String login,
+        @NotBlank(message = "Пароль не может быть пустым")
+        String password
+) {
+}
\ No newline at end of file
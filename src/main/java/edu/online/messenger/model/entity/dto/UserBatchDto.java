@@ -0,0 +1,14 @@
+package edu.online.messenger.model.entity.dto;
+
+import edu.online.messenger.model.dto.UserDto;
+
+import java.util.List;
+import java.util.Map;
+
+public record UserBatchDto(
+        Map<Long, UserDto> usersById,
+        Map<String, UserDto> usersByLogin,
+        List<Long> missingIds,
+        List<String> missingLogins
+) {
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package edu.online.messenger.model.entity.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserBatchRequestDto(
+        @Size(max = 1000, message = "Не более 1000 id в одном запросе")
+        List<Long> ids,
+        @Size(max = 1000, message = "Не более 1000 логинов в одном запросе")
+        List<String> logins
+) {
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package edu.online.messenger.model.entity.dto;
+
+import edu.online.messenger.model.dto.UserDto;
+
+public record UserBulkItemDto(
+        int index,
+        UserDto user,
+        String error
+) {
+}
\ No newline at end of file
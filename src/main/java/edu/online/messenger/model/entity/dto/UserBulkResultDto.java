@@ -0,0 +1,10 @@
+package edu.online.messenger.model.entity.dto;
+
+import java.util.List;
+
+public record UserBulkResultDto(
+        int created,
+        int failed,
+        List<UserBulkItemDto> items
+) {
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package edu.online.messenger.model.entity.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserExistenceRequestDto(
+        @NotNull(message = "Список id не должен быть пустым")
+        @Size(max = 10000, message = "Не более 10000 id в одном запросе")
+        List<@NotNull(message = "id не должен быть null") Long> ids
+) {
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package edu.online.messenger.model.entity.dto;
+
+import edu.online.messenger.constant.RoleName;
+
+import java.time.LocalDateTime;
+
+public record UserView(
+        Long id,
+        String login,
+        String password,
+        RoleName role,
+        LocalDateTime createDate,
+        LocalDateTime lastVisitDate,
+        Long version
+) {
+}
\ No newline at end of file
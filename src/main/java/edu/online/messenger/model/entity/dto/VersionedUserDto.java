@@ -0,0 +1,9 @@
+package edu.online.messenger.model.entity.dto;
+
+import edu.online.messenger.model.dto.UserDto;
+
+public record VersionedUserDto(
+        UserDto user,
+        long version
+) {
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package edu.online.messenger.pagination;
+
+import edu.online.messenger.exception.InvalidCursorException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record UserCursor(Long lastId) {
+
+    private static final String SORT_KEY = "id";
+    private static final String SEPARATOR = ":";
+
+    public static UserCursor start() {
+        return new UserCursor(0L);
+    }
+
+    public static UserCursor decode(String token) {
+        if (StringUtils.isBlank(token)) {
+            return start();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 2);
+            if (parts.length != 2 || !SORT_KEY.equals(parts[0])) {
+                throw new InvalidCursorException(token);
+            }
+            return new UserCursor(Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((SORT_KEY + SEPARATOR + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -1,14 +1,35 @@
 package edu.online.messenger.repository;
 
 import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.dto.AddressView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface AddressRepository extends JpaRepository<Address, Long>, JpaSpecificationExecutor<Address> {
 
+    @Override
+    @EntityGraph(Address.WITH_USER_GRAPH)
+    Page<Address> findAll(Specification<Address> spec, Pageable pageable);
+
     List<Address> findByUserId(Long userId);
+
+    @Query("select new edu.online.messenger.model.entity.dto.AddressView(a.id, a.user.id, a.apartment, a.housing, "
+            + "a.house, a.street, a.city, a.postalCode, a.country) from Address a where a.user.id = :userId order by a.id")
+    List<AddressView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT md5(coalesce(string_agg(id || ':' || version, ',' ORDER BY id), '')) "
+            + "FROM address WHERE user_id = :userId", nativeQuery = true)
+    String findListDigestByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
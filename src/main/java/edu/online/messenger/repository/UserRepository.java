@@ -1,19 +1,56 @@
 package edu.online.messenger.repository;
 
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.UserView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+@Transactional(readOnly = true)
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
+
+    String USER_VIEW_SELECT = "select new edu.online.messenger.model.entity.dto.UserView("
+            + "u.id, u.login, u.password, u.role, u.createDate, u.lastVisitDate, u.version) from User u ";
 
     List<User> findByLastVisitDateBefore(LocalDateTime threshold);
 
     boolean existsByLogin(String login);
 
     Optional<User> findByLogin(String login);
+
+    @Query(USER_VIEW_SELECT + "where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query(USER_VIEW_SELECT + "where u.login = :login")
+    Optional<UserView> findViewByLogin(@Param("login") String login);
+
+    @Query(USER_VIEW_SELECT + "where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(USER_VIEW_SELECT + "where u.login in :logins")
+    List<UserView> findViewsByLoginIn(@Param("logins") Collection<String> logins);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword, u.version = u.version + 1 "
+            + "where u.id = :id and u.password = :oldPassword")
+    int updatePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
+
+    @Query("select u.login from User u where u.login in :logins")
+    List<String> findExistingLogins(@Param("logins") Collection<String> logins);
+
+    @Query(value = "SELECT u.id FROM users u WHERE u.id = ANY(:ids)", nativeQuery = true)
+    List<Long> findExistingIds(@Param("ids") Long[] ids);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package edu.online.messenger.repository;
+
+import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.model.entity.dto.UserView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    Page<UserView> findViewPage(Specification<User> spec, Pageable pageable);
+
+    Slice<UserView> findViewSlice(Specification<User> spec, Pageable pageable);
+
+    long estimateCount();
+
+    long estimateCount(AddressFilterDto filter);
+
+    List<UserView> searchByAddress(String query, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package edu.online.messenger.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.online.messenger.constant.RoleName;
+import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.model.entity.dto.UserView;
+import edu.online.messenger.specification.AddressFilterSql;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final long UNKNOWN_COUNT = -1;
+    private static final ObjectMapper PLAN_READER = new ObjectMapper();
+
+    /**
+     * Пользователи, у которых город или улица начинаются с запроса, содержат его или похожи на него по
+     * триграммам (оператор <% с порогом pg_trgm.word_similarity_threshold). Совпадение по префиксу
+     * ранжируется выше, дальше по word_similarity. Все условия обслуживаются GIN-индексами
+     * idx_address_city_trgm и idx_address_street_trgm.
+     */
+    private static final String ADDRESS_SEARCH_SQL = "SELECT u.id, u.login, u.password, u.role, u.create_date, "
+            + "u.last_visit_date, u.version FROM (SELECT a.user_id, max(CASE WHEN lower(a.city) LIKE ? OR lower(a.street) LIKE ? "
+            + "THEN 1 ELSE 0 END + greatest(word_similarity(?, lower(a.city)), word_similarity(?, lower(a.street)))) "
+            + "AS score FROM address a "
+            + "WHERE lower(a.city) LIKE ? OR lower(a.street) LIKE ? OR ? <% lower(a.city) OR ? <% lower(a.street) "
+            + "GROUP BY a.user_id ORDER BY score DESC, a.user_id LIMIT ?) m "
+            + "JOIN users u ON u.id = m.user_id ORDER BY m.score DESC, u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserView> findViewPage(Specification<User> spec, Pageable pageable) {
+        List<UserView> content = createViewQuery(spec, pageable)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<UserView> findViewSlice(Specification<User> spec, Pageable pageable) {
+        List<UserView> content = createViewQuery(spec, pageable)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long estimateCount() {
+        Long reltuples = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass", Long.class);
+        return reltuples == null || reltuples < 0 ? UNKNOWN_COUNT : reltuples;
+    }
+
+    @Override
+    public long estimateCount(AddressFilterDto filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM users u WHERE "
+                + AddressFilterSql.existsClause(filter, "u.id", params);
+        try {
+            String plan = jdbcTemplate.queryForObject(sql, String.class, params.toArray());
+            JsonNode planRows = PLAN_READER.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return planRows.isNumber() ? planRows.asLong() : UNKNOWN_COUNT;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Не удалось получить оценку количества пользователей по фильтру {}: {}", filter, e.getMessage());
+            return UNKNOWN_COUNT;
+        }
+    }
+
+    @Override
+    public List<UserView> searchByAddress(String query, int limit) {
+        String prefix = AddressFilterSql.escapeLike(query) + "%";
+        String contains = "%" + prefix;
+        return jdbcTemplate.query(ADDRESS_SEARCH_SQL,
+                (rs, rowNum) -> new UserView(
+                        rs.getLong("id"),
+                        rs.getString("login"),
+                        rs.getString("password"),
+                        RoleName.valueOf(rs.getString("role")),
+                        rs.getObject("create_date", LocalDateTime.class),
+                        rs.getObject("last_visit_date", LocalDateTime.class),
+                        rs.getLong("version")),
+                prefix, prefix, query, query, contains, contains, query, query, limit);
+    }
+
+    /**
+     * Запрос с выборкой сразу в {@link UserView}: сущности не создаются и не попадают в контекст персистентности.
+     */
+    private TypedQuery<UserView> createViewQuery(Specification<User> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserView> criteriaQuery = criteriaBuilder.createQuery(UserView.class);
+        Root<User> user = criteriaQuery.from(User.class);
+        criteriaQuery.select(criteriaBuilder.construct(UserView.class,
+                user.get("id"), user.get("login"), user.get("password"), user.get("role"),
+                user.get("createDate"), user.get("lastVisitDate"), user.get("version")));
+        Predicate predicate = spec.toPredicate(user, criteriaQuery, criteriaBuilder);
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+        criteriaQuery.orderBy(QueryUtils.toOrders(pageable.getSort(), user, criteriaBuilder));
+        return entityManager.createQuery(criteriaQuery);
+    }
+
+    private long count(Specification<User> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+        Root<User> user = criteriaQuery.from(User.class);
+        criteriaQuery.select(criteriaBuilder.count(user));
+        Predicate predicate = spec.toPredicate(user, criteriaQuery, criteriaBuilder);
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+        return entityManager.createQuery(criteriaQuery).getSingleResult();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package edu.online.messenger.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Блокировка запланированных задач через таблицу scheduler_lock, общую для всех экземпляров сервиса.
+ * Время берётся из БД, поэтому расхождение часов между экземплярами не влияет на блокировку;
+ * locked_until ограничивает блокировку, если владелец упал, не освободив её.
+ */
+@Slf4j
+@Component
+public class SchedulerLock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instanceId;
+
+    public SchedulerLock(JdbcTemplate jdbcTemplate, @Value("${spring.application.name}") String applicationName) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instanceId = applicationName + "@" + ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        jdbcTemplate.update("INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by) "
+                + "VALUES (?, LOCALTIMESTAMP, LOCALTIMESTAMP, ?) ON CONFLICT (name) DO NOTHING", name, instanceId);
+        int updated = jdbcTemplate.update("UPDATE scheduler_lock "
+                        + "SET locked_until = LOCALTIMESTAMP + make_interval(secs => ?), locked_at = LOCALTIMESTAMP, "
+                        + "locked_by = ? WHERE name = ? AND locked_until <= LOCALTIMESTAMP",
+                (double) lockAtMostFor.toSeconds(), instanceId, name);
+        if (updated == 0) {
+            log.info("Блокировка {} занята другим экземпляром", name);
+            return false;
+        }
+        log.debug("Блокировка {} получена экземпляром {}", name, instanceId);
+        return true;
+    }
+
+    public void unlock(String name) {
+        jdbcTemplate.update("UPDATE scheduler_lock SET locked_until = LOCALTIMESTAMP WHERE name = ? AND locked_by = ?",
+                name, instanceId);
+        log.debug("Блокировка {} освобождена экземпляром {}", name, instanceId);
+    }
+}
\ No newline at end of file
@@ -1,28 +1,130 @@
 package edu.online.messenger.scheduler;
 
-import edu.online.messenger.model.entity.User;
-import edu.online.messenger.repository.UserRepository;
-import jakarta.transaction.Transactional;
-import lombok.AllArgsConstructor;
+import edu.online.messenger.cache.UserCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Удаляет пользователей, не заходивших дольше user-cleanup.inactive-years лет. Удаление идёт пакетами
+ * по user-cleanup.batch-size id, каждый пакет в своей транзакции, с паузой между пакетами и общим
+ * ограничением по времени. Задачу выполняет только экземпляр, получивший блокировку в scheduler_lock.
+ */
 @Slf4j
 @Component
-@AllArgsConstructor
 public class UserCleanupScheduler {
 
-    private final UserRepository userRepository;
+    private static final String LOCK_NAME = "user-cleanup";
 
-    @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLock schedulerLock;
+    private final UserCache userCache;
+    private final int inactiveYears;
+    private final int batchSize;
+    private final Duration timeBudget;
+    private final Duration pause;
+
+    public UserCleanupScheduler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                SchedulerLock schedulerLock, UserCache userCache,
+                                @Value("${user-cleanup.inactive-years:3}") int inactiveYears,
+                                @Value("${user-cleanup.batch-size:5000}") int batchSize,
+                                @Value("${user-cleanup.time-budget:PT30M}") Duration timeBudget,
+                                @Value("${user-cleanup.pause:PT0.2S}") Duration pause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLock = schedulerLock;
+        this.userCache = userCache;
+        this.inactiveYears = inactiveYears;
+        this.batchSize = batchSize;
+        this.timeBudget = timeBudget;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${user-cleanup.cron:0 0 2 * * *}")
     public void deleteInactiveUsers() {
-        List<User> usersToDelete = userRepository.findByLastVisitDateBefore(LocalDateTime.now().minusYears(3));
-        userRepository.deleteAll(usersToDelete);
-        log.info("Удалено {} пользователей", usersToDelete.size());
+        if (!schedulerLock.tryLock(LOCK_NAME, timeBudget.plusMinutes(5))) {
+            return;
+        }
+        try {
+            purge();
+        } finally {
+            schedulerLock.unlock(LOCK_NAME);
+        }
+    }
+
+    private void purge() {
+        Timestamp threshold = Timestamp.valueOf(LocalDateTime.now().minusYears(inactiveYears));
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + timeBudget.toMillis();
+        long deleted = 0;
+        int batches = 0;
+        while (true) {
+            List<Long> ids = deleteBatch(threshold);
+            if (!ids.isEmpty()) {
+                userCache.evictAllById(ids);
+                deleted += ids.size();
+                batches++;
+                log.debug("Пакет {}: удалено {} пользователей", batches, ids.size());
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Время на удаление пользователей ({}) истекло, оставшиеся будут удалены при следующем запуске",
+                        timeBudget);
+                break;
+            }
+            if (!sleep()) {
+                break;
+            }
+        }
+        log.info("Удалено {} пользователей за {} пакетов, {} мс", deleted, batches, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Блокирует очередной пакет неактивных пользователей (SKIP LOCKED не ждёт строк, занятых
+     * другими транзакциями) и удаляет их адреса и их самих двумя запросами по массиву id.
+     */
+    private List<Long> deleteBatch(Timestamp threshold) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE last_visit_date < ? "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED", Long.class, threshold, batchSize);
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            deleteByIds("DELETE FROM address WHERE user_id = ANY(?)", ids);
+            deleteByIds("DELETE FROM users WHERE id = ANY(?)", ids);
+            return ids;
+        });
+    }
+
+    private void deleteByIds(String sql, List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        });
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Удаление пользователей прервано");
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package edu.online.messenger.security;
+
+import edu.online.messenger.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Выполняет BCrypt-хеширование и проверку паролей на отдельном пуле потоков по числу ядер.
+ * Очередь пула ограничена: при её переполнении задача отклоняется {@link PasswordHashingRejectedException},
+ * которое отдаётся клиенту как 503, вместо того чтобы копить запросы и соединения с БД.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private volatile String dummyHash;
+
+    public PasswordHashingExecutor(BCryptPasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${password-hashing.threads:0}") int threads,
+                                   @Value("${password-hashing.queue-capacity:200}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .description("Время BCrypt-хеширования или проверки пароля")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Время ожидания задачи в очереди пула хеширования")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Количество задач в очереди пула хеширования")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Количество потоков, занятых хешированием")
+                .register(meterRegistry);
+        log.info("Пул хеширования паролей: {} потоков, очередь {}", poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Проверяет пароль по хешу, который не совпадёт ни с одним паролем, и всегда возвращает false. Вызывается
+     * для несуществующего логина, чтобы ответ занимал столько же времени, сколько проверка настоящего пароля.
+     */
+    public boolean matchesDummy(String rawPassword) {
+        await(submit(() -> passwordEncoder.matches(rawPassword, dummyHash())));
+        return false;
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Хеширует пароли, разбивая список на столько задач, сколько потоков в пуле,
+     * чтобы пакетный запрос занимал несколько мест в очереди, а не по одному на пароль.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        if (rawPasswords.isEmpty()) {
+            return List.of();
+        }
+        int parts = Math.min(executor.getMaximumPoolSize(), rawPasswords.size());
+        int partSize = (rawPasswords.size() + parts - 1) / parts;
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < rawPasswords.size(); from += partSize) {
+                List<String> part = rawPasswords.subList(from, Math.min(from + partSize, rawPasswords.size()));
+                futures.add(submit(() -> part.stream().map(passwordEncoder::encode).toList()));
+            }
+        } catch (PasswordHashingRejectedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        futures.forEach(future -> encoded.addAll(await(future)));
+        return encoded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Очередь хеширования паролей переполнена: {} задач", executor.getQueue().size());
+            throw new PasswordHashingRejectedException(e);
+        }
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Хеширование пароля прервано", e);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Хеширование пароля отменено", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
\ No newline at end of file
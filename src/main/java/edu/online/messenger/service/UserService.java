@@ -1,5 +1,6 @@
 package edu.online.messenger.service;
 
+import edu.online.messenger.constant.CountMode;
 import edu.online.messenger.model.dto.AddressCreateDto;
 import edu.online.messenger.model.dto.AddressDto;
 import edu.online.messenger.model.dto.UserDto;
@@ -7,7 +8,17 @@ import edu.online.messenger.model.dto.UserInfoDto;
 import edu.online.messenger.model.dto.page.PageContentDto;
 import edu.online.messenger.model.dto.page.PageParamDto;
 import edu.online.messenger.model.entity.dto.AddressFilterDto;
-
+import edu.online.messenger.model.entity.dto.AddressListVersion;
+import edu.online.messenger.model.entity.dto.CursorPageContentDto;
+import edu.online.messenger.model.entity.dto.PasswordCheckDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.model.entity.dto.UserBulkResultDto;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
 import java.util.List;
 
 public interface UserService {
@@ -16,16 +27,34 @@ public interface UserService {
 
     boolean existsByLogin(String login);
 
+    BitSet existsByIds(List<Long> ids);
+
     UserDto getUserByLogin(String login);
 
     UserDto getUserById(Long id);
 
+    VersionedUserDto getVersionedUserById(Long id);
+
+    UserBatchDto getUsers(UserBatchRequestDto userBatchRequestDto);
+
     List<AddressDto> getAddressListByUserId(Long userId);
 
-    PageContentDto<UserDto> findAll(PageParamDto pageParamDto, AddressFilterDto addressFilterDto);
+    AddressListVersion getAddressListVersion(Long userId);
+
+    PageContentDto<UserDto> findAll(PageParamDto pageParamDto, AddressFilterDto addressFilterDto, CountMode countMode);
+
+    CursorPageContentDto<UserDto> findAllAfter(String after, int pageSize, AddressFilterDto addressFilterDto);
+
+    List<UserDto> searchByAddress(String query, int limit);
+
+    void export(AddressFilterDto addressFilterDto, boolean withAddresses, OutputStream outputStream) throws IOException;
 
     UserDto save(UserInfoDto userInfoDto);
 
+    UserBulkResultDto saveAll(List<UserInfoDto> userInfoDtoList);
+
+    boolean checkPassword(PasswordCheckDto passwordCheckDto);
+
     AddressDto addAddressByUserId(AddressCreateDto addressCreateDto);
 
     void deleteAddressById(Long id);
@@ -1,7 +1,13 @@
 package edu.online.messenger.service.impl;
 
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.cache.UserExistenceFilter;
+import edu.online.messenger.constant.CountMode;
+import edu.online.messenger.datasource.PrimaryReadContext;
+import edu.online.messenger.datasource.ReadYourWritesTracker;
 import edu.online.messenger.exception.InvalidDataException;
 import edu.online.messenger.exception.UserNotFoundException;
+import edu.online.messenger.export.UserNdjsonExporter;
 import edu.online.messenger.mapper.AddressMapper;
 import edu.online.messenger.mapper.UserMapper;
 import edu.online.messenger.model.dto.AddressCreateDto;
@@ -14,26 +20,53 @@ import edu.online.messenger.model.dto.page.PageParamDto;
 import edu.online.messenger.model.entity.Address;
 import edu.online.messenger.model.entity.User;
 import edu.online.messenger.model.entity.dto.AddressFilterDto;
-import edu.online.messenger.model.entity.parent.BaseEntity;
+import edu.online.messenger.model.entity.dto.AddressListVersion;
+import edu.online.messenger.model.entity.dto.AddressView;
+import edu.online.messenger.model.entity.dto.CursorPageContentDto;
+import edu.online.messenger.model.entity.dto.PasswordCheckDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.model.entity.dto.UserBulkItemDto;
+import edu.online.messenger.model.entity.dto.UserBulkResultDto;
+import edu.online.messenger.model.entity.dto.UserView;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
+import edu.online.messenger.pagination.UserCursor;
 import edu.online.messenger.repository.AddressRepository;
 import edu.online.messenger.repository.UserRepository;
+import edu.online.messenger.security.PasswordHashingExecutor;
 import edu.online.messenger.service.UserService;
-import edu.online.messenger.specification.AddressSpecification;
-import jakarta.transaction.Transactional;
+import edu.online.messenger.specification.UserSpecification;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,48 +74,171 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int UNKNOWN_TOTAL_PAGES = -1;
+    private static final long UNKNOWN_TOTAL_ELEMENTS = -1;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final int BULK_INSERT_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final UserMapper userMapper;
     private final AddressMapper addressMapper;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserCache userCache;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserNdjsonExporter userNdjsonExporter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Override
     public boolean existsById(Long id) {
         log.info("Проверка существования пользователя по id: {}", id);
-        return userRepository.existsById(id);
+        if (!userExistenceFilter.mightContainId(id)) {
+            log.debug("Пользователь с id {} отсутствует в фильтре существования", id);
+            return false;
+        }
+        return readAfterWrite(id, () -> userRepository.existsById(id));
     }
 
     @Override
     public boolean existsByLogin(String login) {
         log.info("Проверка существования пользователя по логину: {}", login);
-        return userRepository.existsByLogin(login);
+        if (!userExistenceFilter.mightContainLogin(login)) {
+            log.debug("Пользователь с логином {} отсутствует в фильтре существования", login);
+            return false;
+        }
+        return readAfterWrite(login, () -> userRepository.existsByLogin(login));
+    }
+
+    @Override
+    public BitSet existsByIds(List<Long> ids) {
+        log.info("Пакетная проверка существования {} пользователей", ids.size());
+        Long[] candidateIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(userExistenceFilter::mightContainId)
+                .toArray(Long[]::new);
+        Set<Long> existingIds = candidateIds.length == 0
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingIds(candidateIds));
+        BitSet bitmap = new BitSet(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (existingIds.contains(ids.get(i))) {
+                bitmap.set(i);
+            }
+        }
+        log.debug("Существует {} из {} пользователей", bitmap.cardinality(), ids.size());
+        return bitmap;
     }
 
     @Override
     public UserDto getUserByLogin(String login) {
         log.info("Поиск пользователя по логину: {}", login);
-        return userMapper.toDto(userRepository.findByLogin(login)
+        UserDto cached = userCache.getByLogin(login);
+        if (cached != null) {
+            log.debug("Пользователь с логином {} найден в кеше", login);
+            return cached;
+        }
+        UserView userView = readAfterWrite(login, () -> userRepository.findViewByLogin(login))
                 .orElseThrow(() -> {
                     log.error("Пользователь с логином {} не найден", login);
                     return new UserNotFoundException(login);
-                }));
+                });
+        UserDto userDto = userMapper.toDto(userView);
+        userCache.put(userDto, userView.version());
+        return userDto;
     }
 
     @Override
     public UserDto getUserById(Long id) {
         log.info("Поиск пользователя по id: {}", id);
-        return userMapper.toDto(userRepository.findById(id)
+        UserDto cached = userCache.getById(id);
+        if (cached != null) {
+            log.debug("Пользователь с id {} найден в кеше", id);
+            return cached;
+        }
+        UserView userView = readAfterWrite(id, () -> userRepository.findViewById(id))
                 .orElseThrow(() -> {
                     log.error("Пользователь с id {} не найден", id);
                     return new UserNotFoundException(id);
-                }));
+                });
+        UserDto userDto = userMapper.toDto(userView);
+        userCache.put(userDto, userView.version());
+        return userDto;
+    }
+
+    @Override
+    public VersionedUserDto getVersionedUserById(Long id) {
+        log.info("Поиск пользователя с версией по id: {}", id);
+        VersionedUserDto cached = userCache.getVersionedById(id);
+        if (cached != null) {
+            log.debug("Пользователь с id {} найден в кеше", id);
+            return cached;
+        }
+        UserView userView = readAfterWrite(id, () -> userRepository.findViewById(id))
+                .orElseThrow(() -> {
+                    log.error("Пользователь с id {} не найден", id);
+                    return new UserNotFoundException(id);
+                });
+        UserDto userDto = userMapper.toDto(userView);
+        userCache.put(userDto, userView.version());
+        return new VersionedUserDto(userDto, userView.version());
+    }
+
+    @Override
+    public UserBatchDto getUsers(UserBatchRequestDto userBatchRequestDto) {
+        List<Long> ids = userBatchRequestDto.ids() == null
+                ? List.of()
+                : userBatchRequestDto.ids().stream().filter(Objects::nonNull).distinct().toList();
+        List<String> logins = userBatchRequestDto.logins() == null
+                ? List.of()
+                : userBatchRequestDto.logins().stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Пакетный поиск пользователей: {} id, {} логинов", ids.size(), logins.size());
+
+        Map<Long, UserDto> usersById = new LinkedHashMap<>();
+        List<Long> idsToLoad = new ArrayList<>();
+        ids.forEach(id -> {
+            UserDto cached = userCache.getById(id);
+            if (cached != null) {
+                usersById.put(id, cached);
+            } else {
+                idsToLoad.add(id);
+            }
+        });
+        partition(idsToLoad).forEach(chunk -> userRepository.findViewsByIdIn(chunk).forEach(userView -> {
+            UserDto userDto = userMapper.toDto(userView);
+            userCache.put(userDto, userView.version());
+            usersById.put(userDto.getId(), userDto);
+        }));
+
+        Map<String, UserDto> usersByLogin = new LinkedHashMap<>();
+        List<String> loginsToLoad = new ArrayList<>();
+        logins.forEach(login -> {
+            UserDto cached = userCache.getByLogin(login);
+            if (cached != null) {
+                usersByLogin.put(login, cached);
+            } else {
+                loginsToLoad.add(login);
+            }
+        });
+        partition(loginsToLoad).forEach(chunk -> userRepository.findViewsByLoginIn(chunk).forEach(userView -> {
+            UserDto userDto = userMapper.toDto(userView);
+            userCache.put(userDto, userView.version());
+            usersByLogin.put(userDto.getLogin(), userDto);
+        }));
+
+        List<Long> missingIds = ids.stream().filter(id -> !usersById.containsKey(id)).toList();
+        List<String> missingLogins = logins.stream().filter(login -> !usersByLogin.containsKey(login)).toList();
+        log.debug("Не найдено {} id и {} логинов", missingIds.size(), missingLogins.size());
+        return new UserBatchDto(usersById, usersByLogin, missingIds, missingLogins);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AddressDto> getAddressListByUserId(Long userId) {
         log.info("Получение списка адресов для пользователя с id: {}", userId);
-        List<Address> addresses = addressRepository.findByUserId(userId);
+        List<AddressView> addresses = readAfterWrite(userId, () -> addressRepository.findViewsByUserId(userId));
         log.debug("Найдено {} адресов для пользователя с id: {}", addresses.size(), userId);
         return addresses.stream()
                 .map(addressMapper::toDto)
@@ -90,31 +246,156 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public PageContentDto<UserDto> findAll(PageParamDto pageParamDto, AddressFilterDto addressFilterDto) {
-        log.info("Поиск пользователей с фильтрами: {}, страница {}, размер {}",
-                addressFilterDto, pageParamDto.pageNumber(), pageParamDto.pageSize());
-        Pageable pageable = PageRequest.of(pageParamDto.pageNumber() - 1, pageParamDto.pageSize());
+    public AddressListVersion getAddressListVersion(Long userId) {
+        log.debug("Получение версии списка адресов пользователя с id: {}", userId);
+        return new AddressListVersion(readAfterWrite(userId, () -> addressRepository.findListDigestByUserId(userId)));
+    }
 
-        Specification<Address> spec = AddressSpecification.findAll(addressFilterDto);
-        Page<Address> addresses = addressRepository.findAll(spec, pageable);
-        if (isFilterEmpty(addressFilterDto)) {
+    @Override
+    @Transactional(readOnly = true)
+    public PageContentDto<UserDto> findAll(PageParamDto pageParamDto, AddressFilterDto addressFilterDto,
+                                           CountMode countMode) {
+        log.info("Поиск пользователей с фильтрами: {}, страница {}, размер {}, подсчёт {}",
+                addressFilterDto, pageParamDto.pageNumber(), pageParamDto.pageSize(), countMode);
+        Pageable pageable = PageRequest.of(pageParamDto.pageNumber() - 1, pageParamDto.pageSize(), Sort.by("id"));
+
+        boolean filterEmpty = isFilterEmpty(addressFilterDto);
+        if (filterEmpty) {
             log.info("Фильтр пуст, возвращаем всех пользователей без фильтрации");
-            Page<User> users = userRepository.findAll(pageable);
-            PageContentDto<UserDto> pageContentDto = convertUserPageToDto(users);
-            log.debug("Найдено пользователей: {}", pageContentDto.content().size());
-            return pageContentDto;
         }
-        PageContentDto<UserDto> pageContentDto = convertToPageContentDto(addresses);
-        log.debug("Найдено {} пользователей по фильтру адресов", pageContentDto.content().size());
+        Specification<User> spec = filterEmpty
+                ? Specification.where(null)
+                : UserSpecification.hasAddress(addressFilterDto);
+        PageContentDto<UserDto> pageContentDto = switch (countMode) {
+            case EXACT -> convertUserPageToDto(userRepository.findViewPage(spec, pageable));
+            case ESTIMATE -> convertUserSliceToDto(userRepository.findViewSlice(spec, pageable),
+                    estimateTotalElements(spec, filterEmpty ? null : addressFilterDto));
+            case NONE -> convertUserSliceToDto(userRepository.findViewSlice(spec, pageable), UNKNOWN_TOTAL_ELEMENTS);
+        };
+        log.debug("Найдено пользователей: {}", pageContentDto.content().size());
         return pageContentDto;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public CursorPageContentDto<UserDto> findAllAfter(String after, int pageSize, AddressFilterDto addressFilterDto) {
+        UserCursor cursor = UserCursor.decode(after);
+        log.info("Поиск пользователей с фильтрами: {}, после id {}, размер {}",
+                addressFilterDto, cursor.lastId(), pageSize);
+        Specification<User> spec = UserSpecification.idGreaterThan(cursor.lastId());
+        if (!isFilterEmpty(addressFilterDto)) {
+            spec = spec.and(UserSpecification.hasAddress(addressFilterDto));
+        }
+        Slice<UserView> slice = userRepository.findViewSlice(spec, PageRequest.of(0, pageSize, Sort.by("id")));
+        List<UserDto> userDtoList = slice.getContent()
+                .stream()
+                .map(userMapper::toDto)
+                .toList();
+        String nextCursor = slice.hasNext()
+                ? new UserCursor(userDtoList.get(userDtoList.size() - 1).getId()).encode()
+                : null;
+        log.debug("Найдено {} пользователей, следующий курсор: {}", userDtoList.size(), nextCursor);
+        return new CursorPageContentDto<>(pageSize, nextCursor, userDtoList);
+    }
+
+    @Override
+    public List<UserDto> searchByAddress(String query, int limit) {
+        log.info("Поиск пользователей по городу или улице: '{}', не более {}", query, limit);
+        List<UserDto> userDtoList = userRepository.searchByAddress(query.trim().toLowerCase(Locale.ROOT), limit)
+                .stream()
+                .map(userMapper::toDto)
+                .toList();
+        log.debug("Найдено пользователей: {}", userDtoList.size());
+        return userDtoList;
+    }
+
+    @Override
+    public void export(AddressFilterDto addressFilterDto, boolean withAddresses, OutputStream outputStream)
+            throws IOException {
+        log.info("Выгрузка пользователей с фильтрами: {}, с адресами: {}", addressFilterDto, withAddresses);
+        userNdjsonExporter.export(addressFilterDto, withAddresses, outputStream);
+    }
+
+    @Override
     public UserDto save(UserInfoDto userInfoDto) {
         log.info("Создание пользователя : {}", userInfoDto);
-        userInfoDto.setPassword(passwordEncoder.encode(userInfoDto.getPassword()));
-        return userMapper.toDto(userRepository.save(userMapper.toUser(userInfoDto)));
+        userInfoDto.setPassword(passwordHashingExecutor.encode(userInfoDto.getPassword()));
+        userCache.evictByLogin(userInfoDto.getLogin());
+        userExistenceFilter.addLogin(userInfoDto.getLogin());
+        UserDto userDto = userMapper.toDto(userRepository.save(userMapper.toUser(userInfoDto)));
+        userExistenceFilter.addId(userDto.getId());
+        readYourWritesTracker.markWritten(userDto.getId());
+        readYourWritesTracker.markWritten(userDto.getLogin());
+        return userDto;
+    }
+
+    @Override
+    public boolean checkPassword(PasswordCheckDto passwordCheckDto) {
+        log.info("Проверка пароля пользователя с логином: {}", passwordCheckDto.login());
+        User user = userRepository.findByLogin(passwordCheckDto.login()).orElse(null);
+        if (user == null) {
+            return passwordHashingExecutor.matchesDummy(passwordCheckDto.password());
+        }
+        String encodedPassword = user.getPassword();
+        if (!passwordHashingExecutor.matches(passwordCheckDto.password(), encodedPassword)) {
+            return false;
+        }
+        if (passwordHashingExecutor.upgradeEncoding(encodedPassword)) {
+            String upgradedPassword = passwordHashingExecutor.encode(passwordCheckDto.password());
+            if (userRepository.updatePassword(user.getId(), encodedPassword, upgradedPassword) > 0) {
+                log.info("Пароль пользователя с id: {} перехеширован с текущей стоимостью BCrypt", user.getId());
+                userCache.evictById(user.getId());
+                readYourWritesTracker.markWritten(user.getId());
+                readYourWritesTracker.markWritten(user.getLogin());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public UserBulkResultDto saveAll(List<UserInfoDto> userInfoDtoList) {
+        log.info("Пакетное создание {} пользователей", userInfoDtoList.size());
+        long startedAt = System.currentTimeMillis();
+        UserBulkItemDto[] results = new UserBulkItemDto[userInfoDtoList.size()];
+
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < userInfoDtoList.size(); i++) {
+            UserInfoDto userInfoDto = userInfoDtoList.get(i);
+            String error = validate(userInfoDto);
+            if (error == null && candidates.putIfAbsent(userInfoDto.getLogin(), i) != null) {
+                error = "Логин " + userInfoDto.getLogin() + " повторяется в запросе";
+            }
+            if (error != null) {
+                results[i] = new UserBulkItemDto(i, null, error);
+            }
+        }
+        partition(new ArrayList<>(candidates.keySet()))
+                .forEach(chunk -> userRepository.findExistingLogins(chunk).forEach(login -> {
+                    int index = candidates.remove(login);
+                    results[index] = new UserBulkItemDto(index, null, "Пользователь с логином " + login + " уже существует");
+                }));
+
+        List<Integer> indexes = new ArrayList<>(candidates.values());
+        List<String> encodedPasswords = passwordHashingExecutor.encodeAll(indexes.stream()
+                .map(index -> userInfoDtoList.get(index).getPassword())
+                .toList());
+        for (int i = 0; i < indexes.size(); i++) {
+            userInfoDtoList.get(indexes.get(i)).setPassword(encodedPasswords.get(i));
+        }
+        indexes.forEach(index -> {
+            String login = userInfoDtoList.get(index).getLogin();
+            userCache.evictByLogin(login);
+            userExistenceFilter.addLogin(login);
+        });
+        for (int from = 0; from < indexes.size(); from += BULK_INSERT_CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + BULK_INSERT_CHUNK_SIZE, indexes.size()));
+            insertChunk(userInfoDtoList, chunk, results);
+        }
+
+        int created = (int) Arrays.stream(results).filter(result -> result.user() != null).count();
+        log.info("Пакетное создание завершено: создано {}, ошибок {}, {} мс",
+                created, results.length - created, System.currentTimeMillis() - startedAt);
+        return new UserBulkResultDto(created, results.length - created, Arrays.asList(results));
     }
 
     @Override
@@ -130,6 +411,7 @@ public class UserServiceImpl implements UserService {
         Address address = addressMapper.toEntity(addressCreateDto);
         address.setUser(user);
         Address savedAddress = addressRepository.save(address);
+        readYourWritesTracker.markWritten(userId);
         AddressDto addressDto = addressMapper.toDto(savedAddress);
         log.debug("Адрес успешно добавлен с id: {} для пользователя с id:{}", addressDto.getId(), userId);
         return addressDto;
@@ -147,9 +429,28 @@ public class UserServiceImpl implements UserService {
     public void deleteUserById(Long id) {
         log.info("Удаление пользователя с id: {}", id);
         userRepository.deleteById(id);
+        readYourWritesTracker.markWritten(id);
+        afterCommit(() -> userCache.evictById(id));
+    }
+
+    /**
+     * Вытеснение из кеша до фиксации транзакции оставляет окно, в котором параллельный запрос успевает снова
+     * положить в кеш ещё не удалённую строку, поэтому оно откладывается до afterCommit.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
-    private boolean isFilterEmpty(AddressFilterDto addressFilterDto) {
+    static boolean isFilterEmpty(AddressFilterDto addressFilterDto) {
         log.debug("Проверка пустоты фильтра адресов: {}", addressFilterDto);
         boolean empty = Arrays.stream(addressFilterDto.getClass().getRecordComponents())
                 .map(recordComponent -> {
@@ -164,27 +465,96 @@ public class UserServiceImpl implements UserService {
         return empty;
     }
 
-    private PageContentDto<UserDto> convertToPageContentDto(Page<Address> page) {
-        log.debug("Конвертация страницы адресов в DTO пользователей");
-        Set<Long> userIds = page.getContent()
-                .stream()
-                .map(Address::getUser)
-                .map(BaseEntity::getId)
-                .collect(Collectors.toSet());
-        List<UserDto> userDtoList = userRepository.findAllById(userIds)
+    private String validate(UserInfoDto userInfoDto) {
+        if (userInfoDto == null) {
+            return "Пустой элемент запроса";
+        }
+        Set<ConstraintViolation<UserInfoDto>> violations = validator.validate(userInfoDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void insertChunk(List<UserInfoDto> userInfoDtoList, List<Integer> chunk, UserBulkItemDto[] results) {
+        try {
+            List<UserDto> saved = transactionTemplate.execute(status -> userRepository.saveAll(chunk.stream()
+                            .map(index -> userMapper.toUser(userInfoDtoList.get(index)))
+                            .toList())
+                    .stream()
+                    .map(userMapper::toDto)
+                    .toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                registerCreated(chunk.get(i), saved.get(i), results);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Ошибка пакетной вставки, сохраняем {} пользователей по одному: {}", chunk.size(), e.getMessage());
+            chunk.forEach(index -> {
+                try {
+                    UserDto userDto = transactionTemplate.execute(status ->
+                            userMapper.toDto(userRepository.save(userMapper.toUser(userInfoDtoList.get(index)))));
+                    registerCreated(index, userDto, results);
+                } catch (DataAccessException itemException) {
+                    results[index] = new UserBulkItemDto(index, null, itemException.getMostSpecificCause().getMessage());
+                }
+            });
+        }
+    }
+
+    private void registerCreated(int index, UserDto userDto, UserBulkItemDto[] results) {
+        userExistenceFilter.addId(userDto.getId());
+        readYourWritesTracker.markWritten(userDto.getId());
+        readYourWritesTracker.markWritten(userDto.getLogin());
+        results[index] = new UserBulkItemDto(index, userDto, null);
+    }
+
+    /**
+     * Читает недавно изменённого пользователя с основной БД: реплика может ещё не получить изменение.
+     */
+    private <T> T readAfterWrite(Object key, Supplier<T> reader) {
+        return readYourWritesTracker.isRecentlyWritten(key) ? PrimaryReadContext.onPrimary(reader) : reader.get();
+    }
+
+    private static <T> List<List<T>> partition(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += BATCH_CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + BATCH_CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    private long estimateTotalElements(Specification<User> spec, AddressFilterDto addressFilterDto) {
+        long estimate = addressFilterDto == null
+                ? userRepository.estimateCount()
+                : userRepository.estimateCount(addressFilterDto);
+        if (estimate < 0) {
+            log.debug("Оценка количества пользователей недоступна, выполняем точный подсчёт");
+            return userRepository.count(spec);
+        }
+        return estimate;
+    }
+
+    private PageContentDto<UserDto> convertUserSliceToDto(Slice<UserView> slice, long totalElements) {
+        log.debug("Конвертация среза пользователей в DTO");
+        List<UserDto> userDtoList = slice.getContent()
                 .stream()
                 .map(userMapper::toDto)
                 .toList();
+        long seenElements = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        long total = totalElements == UNKNOWN_TOTAL_ELEMENTS ? UNKNOWN_TOTAL_ELEMENTS : Math.max(totalElements, seenElements);
         PageDto pageDto = new PageDto(
-                page.getNumber() + 1,
-                page.getSize(),
-                page.getTotalPages(),
-                page.getTotalElements());
+                slice.getNumber() + 1,
+                slice.getSize(),
+                total == UNKNOWN_TOTAL_ELEMENTS ? UNKNOWN_TOTAL_PAGES : (int) Math.ceil((double) total / slice.getSize()),
+                total);
         log.debug("Сформирована страница с {} пользователями", userDtoList.size());
         return new PageContentDto<>(pageDto, userDtoList);
     }
 
-    private PageContentDto<UserDto> convertUserPageToDto(Page<User> page) {
+    private PageContentDto<UserDto> convertUserPageToDto(Page<UserView> page) {
         log.debug("Конвертация страницы пользователей в DTO");
         List<UserDto> userDtoList = page.getContent()
                 .stream()
@@ -0,0 +1,50 @@
+package edu.online.messenger.specification;
+
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+@UtilityClass
+public class AddressFilterSql {
+
+    public static boolean hasConditions(AddressFilterDto filter) {
+        return StringUtils.isNotEmpty(filter.country())
+                || StringUtils.isNotEmpty(filter.postalCode())
+                || StringUtils.isNotEmpty(filter.city())
+                || StringUtils.isNotEmpty(filter.street())
+                || StringUtils.isNotEmpty(filter.house())
+                || StringUtils.isNotEmpty(filter.housing())
+                || StringUtils.isNotEmpty(filter.apartment());
+    }
+
+    public static String existsClause(AddressFilterDto filter, String userIdColumn, List<Object> params) {
+        StringBuilder sql = new StringBuilder("EXISTS (SELECT 1 FROM address a WHERE a.user_id = ")
+                .append(userIdColumn);
+        appendCondition(sql, params, "a.country = ?", filter.country());
+        appendCondition(sql, params, "a.postal_code = ?", filter.postalCode());
+        appendCondition(sql, params, "a.city = ?", filter.city());
+        appendCondition(sql, params, "a.street = ?", filter.street());
+        appendCondition(sql, params, "a.house = CAST(? AS integer)", filter.house());
+        appendCondition(sql, params, "a.housing = ?", filter.housing());
+        appendCondition(sql, params, "a.apartment = CAST(? AS integer)", filter.apartment());
+        return sql.append(')').toString();
+    }
+
+    private static void appendCondition(StringBuilder sql, List<Object> params, String condition, String value) {
+        if (StringUtils.isNotEmpty(value)) {
+            sql.append(" AND ").append(condition);
+            params.add(value);
+        }
+    }
+
+    /**
+     * Экранирует %, _ и \ для подстановки пользовательского текста в шаблон LIKE.
+     */
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
\ No newline at end of file
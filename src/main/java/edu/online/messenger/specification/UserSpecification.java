@@ -0,0 +1,31 @@
+package edu.online.messenger.specification;
+
+import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+@UtilityClass
+public class UserSpecification {
+
+    public static Specification<User> hasAddress(AddressFilterDto filter) {
+        Specification<Address> addressSpec = AddressSpecification.findAll(filter);
+        return (user, criteriaQuery, criteriaBuilder) -> {
+            Subquery<Integer> subquery = criteriaQuery.subquery(Integer.class);
+            Root<Address> address = subquery.from(Address.class);
+            Predicate sameUser = criteriaBuilder.equal(address.get("user"), user);
+            Predicate addressPredicate = addressSpec.toPredicate(address, criteriaQuery, criteriaBuilder);
+            subquery.select(criteriaBuilder.literal(1))
+                    .where(addressPredicate == null ? sameUser : criteriaBuilder.and(sameUser, addressPredicate));
+            return criteriaBuilder.exists(subquery);
+        };
+    }
+
+    public static Specification<User> idGreaterThan(Long id) {
+        return (user, criteriaQuery, criteriaBuilder) -> criteriaBuilder.greaterThan(user.get("id"), id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package edu.online.messenger.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContainShouldReturnTrueForEveryInsertedKey() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        IntStream.range(0, 10_000).forEach(i -> filter.put("login:user_" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("login:user_" + i)));
+    }
+
+    @Test
+    void mightContainShouldKeepFalsePositiveRateNearConfiguredProbability() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("id:" + i));
+
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("id:" + i))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "Слишком много ложноположительных срабатываний: " + falsePositives);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package edu.online.messenger.cache;
+
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
+import edu.online.messenger.util.UserTestBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UserCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserCache userCache = new UserCache(100, Duration.ofMinutes(5), false, Duration.ofSeconds(5),
+            meterRegistry);
+
+    @Test
+    void getByIdAndLoginShouldReturnCachedUser() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+
+        userCache.put(userDto, 0);
+
+        assertSame(userDto, userCache.getById(5L));
+        assertSame(userDto, userCache.getByLogin("testLogin"));
+        assertEquals(3, userCache.stats().hitCount());
+    }
+
+    @Test
+    void lookupsShouldBePublishedToMeterRegistryPerCache() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        userCache.put(userDto, 0);
+
+        userCache.getVersionedById(5L);
+        userCache.getByLogin("testLogin");
+        userCache.getByLogin("unknown");
+
+        assertEquals(2, cacheGets("users.byId", "hit"));
+        assertEquals(1, cacheGets("users.byLogin", "hit"));
+        assertEquals(1, cacheGets("users.byLogin", "miss"));
+    }
+
+    @Test
+    void evictByIdShouldRemoveBothKeys() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        userCache.put(userDto, 0);
+
+        userCache.evictById(5L);
+
+        assertNull(userCache.getById(5L));
+        assertNull(userCache.getByLogin("testLogin"));
+    }
+
+    @Test
+    void evictByLoginShouldRemoveBothKeys() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        userCache.put(userDto, 0);
+
+        userCache.evictByLogin("testLogin");
+
+        assertNull(userCache.getByLogin("testLogin"));
+        assertNull(userCache.getById(5L));
+    }
+
+    @Test
+    void evictAllByIdShouldRemoveOnlyGivenUsers() {
+        userCache.put(UserTestBuilder.builder().withId(1L).withLogin("first").build().buildUserDto(), 0);
+        userCache.put(UserTestBuilder.builder().withId(2L).withLogin("second").build().buildUserDto(), 0);
+        userCache.put(UserTestBuilder.builder().withId(3L).withLogin("third").build().buildUserDto(), 0);
+
+        userCache.evictAllById(List.of(1L, 3L));
+
+        assertNull(userCache.getById(1L));
+        assertNull(userCache.getById(3L));
+        assertEquals("second", userCache.getByLogin("second").getLogin());
+    }
+
+    @Test
+    void getVersionedByIdShouldReturnVersionStoredWithUser() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        userCache.put(userDto, 3);
+
+        assertEquals(new VersionedUserDto(userDto, 3), userCache.getVersionedById(5L));
+
+        userCache.evictById(5L);
+
+        assertNull(userCache.getVersionedById(5L));
+    }
+
+    @Test
+    void timeToLiveShouldBeCappedAtReplicaLagWhenReadingFromReplicas() {
+        assertEquals(Duration.ofSeconds(5),
+                UserCache.effectiveTimeToLive(Duration.ofMinutes(5), true, Duration.ofSeconds(5)));
+        assertEquals(Duration.ofMinutes(5),
+                UserCache.effectiveTimeToLive(Duration.ofMinutes(5), false, Duration.ofSeconds(5)));
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package edu.online.messenger.cache;
+
+import edu.online.messenger.config.AbstractIntegrationTest;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пользователи вставляются вне тестовой транзакции: уведомление user_keys доставляется только при коммите.
+ */
+@SpringBootTest(properties = {
+        "user-existence-filter.enabled=true",
+        "user-existence-filter.reconnect-delay=PT0.1S"
+})
+@Transactional(Transactional.TxType.NOT_SUPPORTED)
+public class UserExistenceFilterIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (7001, 7002, 7003)");
+    }
+
+    @Test
+    void shouldLearnUsersInsertedOutsideThisInstance() {
+        await(userExistenceFilter::isListening);
+        assertThat(userExistenceFilter.mightContainId(7001L)).isFalse();
+        assertThat(userExistenceFilter.mightContainLogin("insertedBySql")).isFalse();
+
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (7001, 'insertedBySql', 'password', 'USER')");
+
+        await(() -> userExistenceFilter.mightContainId(7001L));
+        assertThat(userExistenceFilter.mightContainLogin("insertedBySql")).isTrue();
+    }
+
+    @Test
+    void shouldLearnAllUsersOfBulkInsertAndRenamedLogins() {
+        await(userExistenceFilter::isListening);
+
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) "
+                + "VALUES (7002, 'bulkOne', 'password', 'USER'), (7003, 'bulkTwo', 'password', 'USER')");
+
+        await(() -> userExistenceFilter.mightContainId(7003L));
+        assertThat(userExistenceFilter.mightContainId(7002L)).isTrue();
+        assertThat(userExistenceFilter.mightContainLogin("bulkOne")).isTrue();
+        assertThat(userExistenceFilter.mightContainLogin("bulkTwo")).isTrue();
+        assertThat(userExistenceFilter.mightContainLogin("renamedBySql")).isFalse();
+
+        jdbcTemplate.update("UPDATE users SET login = 'renamedBySql' WHERE id = 7002");
+
+        await(() -> userExistenceFilter.mightContainLogin("renamedBySql"));
+    }
+
+    @Test
+    void shouldNotTrustNegativesBeforeSubscription() {
+        UserExistenceFilter notStarted = new UserExistenceFilter(jdbcTemplate, null, null, true, 0.01, 1000, 1.5,
+                Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+        assertThat(notStarted.mightContainId(7001L)).isTrue();
+        assertThat(notStarted.mightContainLogin("insertedBySql")).isTrue();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("условие не выполнилось за 10 секунд").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
\ No newline at end of file
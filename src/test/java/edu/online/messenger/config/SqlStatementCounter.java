@@ -0,0 +1,121 @@
+package edu.online.messenger.config;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Считает SQL-запросы и прочитанные строки, проходящие через обёрнутый {@link DataSource}.
+ * Пакет JDBC (executeBatch) считается одним запросом, как и уходит в БД.
+ */
+public class SqlStatementCounter {
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+    public DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? proxy(Connection.class, connection, this::onConnection) : result;
+        });
+    }
+
+    public void reset() {
+        statements.set(0);
+        rows.set(0);
+        executedSql.clear();
+    }
+
+    public long statements() {
+        return statements.get();
+    }
+
+    public long rows() {
+        return rows.get();
+    }
+
+    public List<String> executedSql() {
+        return List.copyOf(executedSql);
+    }
+
+    public void assertAtMost(long maxStatements, long maxRows) {
+        assertTrue(statements() <= maxStatements, () -> "Ожидалось не более " + maxStatements
+                + " SQL-запросов, выполнено " + statements() + ":\n" + String.join("\n", executedSql));
+        assertTrue(rows() <= maxRows, () -> "Ожидалось не более " + maxRows
+                + " прочитанных строк, прочитано " + rows() + ":\n" + String.join("\n", executedSql));
+    }
+
+    private Object onConnection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        String sql = args != null && args.length > 0 && args[0] instanceof String value ? value : null;
+        if (result instanceof CallableStatement statement) {
+            return proxy(CallableStatement.class, statement, (t, m, a) -> onStatement(t, m, a, sql));
+        }
+        if (result instanceof PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (t, m, a) -> onStatement(t, m, a, sql));
+        }
+        if (result instanceof Statement statement) {
+            return proxy(Statement.class, statement, (t, m, a) -> onStatement(t, m, a, null));
+        }
+        return result;
+    }
+
+    private Object onStatement(Object target, Method method, Object[] args, String preparedSql) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            statements.incrementAndGet();
+            String sql = args != null && args.length > 0 && args[0] instanceof String value ? value : preparedSql;
+            executedSql.add("executeBatch".equals(name) ? "[batch] " + sql : sql);
+        }
+        Object result = invoke(target, method, args);
+        if (result instanceof ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet, this::onResultSet);
+        }
+        return result;
+    }
+
+    private Object onResultSet(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+            rows.incrementAndGet();
+        }
+        return result;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetInvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName())) {
+                return invoke(target, method, args);
+            }
+            return handler.invoke(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,9 @@
 package edu.online.messenger.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import edu.online.messenger.config.AbstractIntegrationTest;
 import edu.online.messenger.model.entity.Address;
 import edu.online.messenger.model.entity.User;
@@ -10,16 +14,29 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -33,6 +50,11 @@ public class UserControllerTest extends AbstractIntegrationTest {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final User testUser = UserTestBuilder.builder().withId(5L).build().buildUser();
     private final Address testAddress = AddressTestBuilder.builder().withId(10L).build().buildAddress();
 
@@ -76,6 +98,130 @@ public class UserControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void getUserByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/api/users/{id}", testUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"user-5-0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/{id}", testUser.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserByIdShouldReturnNotModifiedForAnotherFormatWithSameWeakETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/users/{id}", testUser.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(eTag).startsWith("W/");
+        mockMvc.perform(get("/api/users/{id}", testUser.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUserByIdShouldReturn404WhenUserNotFoundAndETagIsSent() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", 666L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-666-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAddressListByUserIdShouldReturnNewETagWhenAddressesReplacedWithSameIdSum() throws Exception {
+        insertAddress(13L);
+        String eTag = mockMvc.perform(get("/api/users/address/{userId}", testUser.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("DELETE FROM address WHERE id IN (10, 13)");
+        insertAddress(11L);
+        insertAddress(12L);
+
+        mockMvc.perform(get("/api/users/address/{userId}", testUser.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void getAddressListByUserIdShouldReturnNewETagWhenAddressAdded() throws Exception {
+        String eTag = mockMvc.perform(get("/api/users/address/{userId}", testUser.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/address/{userId}", testUser.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/users/address")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":5,\"country\":\"Russia\",\"city\":\"Moscow\",\"street\":\"Lenina\","
+                                + "\"postalCode\":\"123456\",\"house\":1,\"housing\":\"A\",\"apartment\":10}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/users/address/{userId}", testUser.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void getUserByIdShouldReturnJsonWhenAcceptIsAny() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", testUser.getId())
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void getUserByIdShouldReturnCborWhenRequested() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/{id}", testUser.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(user.get("id").asLong()).isEqualTo(5L);
+        assertThat(user.get("login").asText()).isEqualTo("testLogin");
+    }
+
+    @Test
+    void findAllShouldReturnSmileWhenRequested() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users")
+                        .accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(page.get("content").get(0).get("login").asText()).isEqualTo("testLogin");
+    }
+
+    @Test
+    void addAddressByUserIdShouldAcceptCborRequestBody() throws Exception {
+        byte[] request = new ObjectMapper(new CBORFactory()).writeValueAsBytes(Map.of(
+                "userId", 5, "country", "Russia", "city", "Moscow", "street", "Lenina",
+                "postalCode", "123456", "house", 1, "housing", "A", "apartment", 10));
+
+        mockMvc.perform(post("/api/users/address")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.city").value("Moscow"));
+    }
+
     @Test
     void existsByIdShouldReturnTrueWhenUserExists() throws Exception {
         mockMvc.perform(get("/api/users/existence/id/{userId}", testUser.getId())
@@ -141,4 +287,101 @@ public class UserControllerTest extends AbstractIntegrationTest {
                         .content(addressJson))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void existsByIdsShouldReturnJsonMapByDefault() throws Exception {
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[5,333]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.5").value(true))
+                .andExpect(jsonPath("$.333").value(false));
+    }
+
+    @Test
+    void existsByIdsShouldReturnBitmapWhenOctetStreamRequested() throws Exception {
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("{\"ids\":[333,5]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{0b10}));
+    }
+
+    @Test
+    void existsByIdsShouldChooseFormatByQualityValues() throws Exception {
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT, "application/octet-stream;q=0.5, application/json")
+                        .content("{\"ids\":[333,5]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.5").value(true));
+
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/octet-stream")
+                        .content("{\"ids\":[333,5]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{0b10}));
+    }
+
+    @Test
+    void existsByIdsShouldReturnJsonWhenAnyTypeIsAccepted() throws Exception {
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT, "*/*")
+                        .content("{\"ids\":[5]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.5").value(true));
+    }
+
+    @Test
+    void existsByIdsShouldReturn406WhenAcceptIsMalformed() throws Exception {
+        mockMvc.perform(post("/api/users/existence")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT, "application/")
+                        .content("{\"ids\":[5]}"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void findAllAfterShouldReturn400WhenPageSizeIsOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/users").param("after", "").param("pageSize", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users").param("after", "").param("pageSize", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users").param("after", "").param("pageSize", "100"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void saveAllShouldReturn400WhenBatchExceedsLimit() throws Exception {
+        String body = IntStream.range(0, 1001)
+                .mapToObj(i -> "{\"login\":\"bulk_" + i + "\",\"password\":\"bulkPassword1\",\"role\":\"USER\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/api/users/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportShouldUseItsOwnAsyncTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+        result.getAsyncResult();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
+    private void insertAddress(Long id) {
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "VALUES (?, 5, 'testCountry', 'testCity', 'testStreet', 'testPostalCode', 1)", id);
+    }
 }
\ No newline at end of file
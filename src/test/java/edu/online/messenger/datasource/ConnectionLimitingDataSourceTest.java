@@ -0,0 +1,55 @@
+package edu.online.messenger.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void getConnectionShouldWaitForPermitAndReleaseItOnClose() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void getConnectionShouldReleasePermitWhenTargetFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package edu.online.messenger.datasource;
+
+import edu.online.messenger.repository.UserRepository;
+import edu.online.messenger.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Две независимые БД: основная (схема из Liquibase) и «реплика» с одним пользователем, которого нет
+ * в основной. Откуда пришли данные, видно по тому, какой пользователь нашёлся. Вторая реплика
+ * из настроек недоступна и должна исключаться из выбора.
+ */
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+public class ReplicaRoutingIntegrationTest {
+
+    private static final long REPLICA_USER_ID = 900001;
+    private static final long PRIMARY_USER_ID = 900002;
+
+    @Container
+    public static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:17.4-alpine")
+            .withDatabaseName("edu_online_messenger_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:17.4-alpine")
+            .withDatabaseName("edu_online_messenger_replica")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.liquibase.user", primary::getUsername);
+        registry.add("spring.liquibase.password", primary::getPassword);
+        registry.add("read-replicas.enabled", () -> true);
+        registry.add("read-replicas.health-check-interval", () -> "PT1H");
+        registry.add("read-replicas.replicas[0].url", replica::getJdbcUrl);
+        registry.add("read-replicas.replicas[0].username", replica::getUsername);
+        registry.add("read-replicas.replicas[0].password", replica::getPassword);
+        registry.add("read-replicas.replicas[1].url", () -> "jdbc:postgresql://localhost:1/unavailable");
+        registry.add("read-replicas.replicas[1].username", replica::getUsername);
+        registry.add("read-replicas.replicas[1].password", replica::getPassword);
+        registry.add("read-replicas.replicas[1].connection-timeout", () -> "PT0.25S");
+    }
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        replicaJdbcTemplate.execute("CREATE TABLE users (id bigint PRIMARY KEY, login varchar(50) NOT NULL UNIQUE, "
+                + "password varchar(255) NOT NULL, role varchar(50) NOT NULL, create_date timestamp, "
+                + "last_visit_date timestamp, version bigint NOT NULL DEFAULT 0)");
+        replicaJdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (?, 'replica_only', 'password', 'USER')",
+                REPLICA_USER_ID);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", PRIMARY_USER_ID);
+    }
+
+    @Test
+    void readOnlyTransactionsShouldReadFromReplica() {
+        assertThat(userRepository.findViewById(REPLICA_USER_ID)).isPresent();
+        assertThat(userRepository.existsByLogin("replica_only")).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Integer.class, REPLICA_USER_ID))
+                .isZero();
+    }
+
+    @Test
+    void unavailableReplicaShouldBeSkipped() throws SQLException {
+        assertThat(dataSource.unwrap(ReplicaRoutingDataSource.class).availableReplicas()).isEqualTo(1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(userRepository.findViewByLogin("replica_only")).isPresent();
+        }
+    }
+
+    @Test
+    void recentlyWrittenUserShouldBeReadFromPrimary() {
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (?, 'primary_only', 'password', 'USER')",
+                PRIMARY_USER_ID);
+        assertThat(userRepository.findViewById(PRIMARY_USER_ID)).isEmpty();
+
+        readYourWritesTracker.markWritten(PRIMARY_USER_ID);
+
+        assertThat(userService.getUserById(PRIMARY_USER_ID).getLogin()).isEqualTo("primary_only");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package edu.online.messenger.datasource;
+
+import edu.online.messenger.config.AbstractIntegrationTest;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Профиль virtual вместе с read-replicas.enabled=true: семафор должен оборачивать физический источник
+ * основной БД внутри маршрутизатора и LazyConnectionDataSourceProxy, а не ленивый прокси снаружи.
+ * Реплика - та же БД, что и основная.
+ */
+@SpringBootTest(properties = {
+        "virtual-threads.db-permits=3",
+        "read-replicas.enabled=true",
+        "read-replicas.health-check-interval=PT1H"
+})
+@ActiveProfiles("virtual")
+@Transactional(Transactional.TxType.NOT_SUPPORTED)
+public class VirtualThreadReplicaIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int PERMITS = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void registerReplicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("read-replicas.replicas[0].url", postgreSQLContainer::getJdbcUrl);
+        registry.add("read-replicas.replicas[0].username", postgreSQLContainer::getUsername);
+        registry.add("read-replicas.replicas[0].password", postgreSQLContainer::getPassword);
+    }
+
+    @Test
+    void limiterShouldWrapPrimaryInsideRoutingAndLazyProxies() throws SQLException {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(dataSource).isNotInstanceOf(ConnectionLimitingDataSource.class);
+        assertThat(dataSource.unwrap(ReplicaRoutingDataSource.class)).isNotNull();
+        assertThat(dataSource.unwrap(ConnectionLimitingDataSource.class).availablePermits()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void permitShouldBeTakenOnlyWhenStatementReachesPrimary() throws SQLException {
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(limiter.availablePermits()).isEqualTo(PERMITS);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+            assertThat(limiter.availablePermits()).isEqualTo(PERMITS - 1);
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class)).isNotNull();
+        assertThat(limiter.availablePermits()).isEqualTo(PERMITS);
+    }
+}
\ No newline at end of file
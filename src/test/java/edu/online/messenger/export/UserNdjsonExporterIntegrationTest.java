@@ -0,0 +1,87 @@
+package edu.online.messenger.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.online.messenger.config.AbstractIntegrationTest;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Sql("/sql/setup.sql")
+public class UserNdjsonExporterIntegrationTest extends AbstractIntegrationTest {
+
+    private static final AddressFilterDto NO_FILTER = new AddressFilterDto(null, null, null, null, null, null, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private UserNdjsonExporter userNdjsonExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (4001, 'withoutAddress', 'secret', 'USER')");
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (4002, 'twoAddresses', 'secret', 'USER')");
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "VALUES (4101, 4002, 'country', 'firstCity', 'street', '000000', 1)");
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house, apartment) "
+                + "VALUES (4102, 4002, 'country', 'secondCity', 'street', '000000', 2, 7)");
+    }
+
+    @Test
+    void exportShouldWriteOneUserPerLineWithoutPassword() throws IOException {
+        List<JsonNode> lines = export(false);
+
+        assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactly(5L, 4001L, 4002L);
+        assertThat(lines).allSatisfy(line -> {
+            assertThat(line.has("password")).isFalse();
+            assertThat(line.has("addresses")).isFalse();
+        });
+        assertThat(lines.get(1).get("login").asText()).isEqualTo("withoutAddress");
+    }
+
+    @Test
+    void exportWithAddressesShouldGroupAddressesUnderTheirUser() throws IOException {
+        List<JsonNode> lines = export(true);
+
+        assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactly(5L, 4001L, 4002L);
+        assertThat(lines).allSatisfy(line -> assertThat(line.has("password")).isFalse());
+        assertThat(lines.get(0).get("addresses")).hasSize(1);
+        assertThat(lines.get(1).get("addresses")).isEmpty();
+
+        JsonNode addresses = lines.get(2).get("addresses");
+        assertThat(addresses).hasSize(2);
+        assertThat(addresses.get(0).get("city").asText()).isEqualTo("firstCity");
+        assertThat(addresses.get(0).get("apartment").isNull()).isTrue();
+        assertThat(addresses.get(1).get("apartment").asInt()).isEqualTo(7);
+        assertThat(addresses.get(1).get("userId").asLong()).isEqualTo(4002L);
+    }
+
+    private List<JsonNode> export(boolean withAddresses) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        userNdjsonExporter.export(NO_FILTER, withAddresses, outputStream);
+
+        String body = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
\ No newline at end of file
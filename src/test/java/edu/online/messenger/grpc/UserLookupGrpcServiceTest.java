@@ -0,0 +1,191 @@
+package edu.online.messenger.grpc;
+
+import edu.online.messenger.exception.UserNotFoundException;
+import edu.online.messenger.grpc.proto.ExistsBatchRequest;
+import edu.online.messenger.grpc.proto.ExistsBatchResponse;
+import edu.online.messenger.grpc.proto.User;
+import edu.online.messenger.grpc.proto.UserBatchRequest;
+import edu.online.messenger.grpc.proto.UserBatchResponse;
+import edu.online.messenger.grpc.proto.UserIdRequest;
+import edu.online.messenger.grpc.proto.UserLoginRequest;
+import edu.online.messenger.grpc.proto.UserLookupServiceGrpc;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.service.UserService;
+import edu.online.messenger.util.UserTestBuilder;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserLookupGrpcServiceTest {
+
+    private final UserService userService = mock(UserService.class);
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new UserLookupGrpcService(userService))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void getUserByIdShouldReturnUser() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        when(userService.getUserById(5L)).thenReturn(userDto);
+
+        User user = UserLookupServiceGrpc.newBlockingStub(channel)
+                .getUserById(UserIdRequest.newBuilder().setId(5L).build());
+
+        assertEquals(5L, user.getId());
+        assertEquals("testLogin", user.getLogin());
+        assertEquals("USER", user.getRole());
+        assertEquals(userDto.getCreateDate().toString(), user.getCreateDate());
+    }
+
+    @Test
+    void getUserByIdShouldReturnNotFoundWhenUserDoesNotExist() {
+        when(userService.getUserById(666L)).thenThrow(new UserNotFoundException(666L));
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> UserLookupServiceGrpc.newBlockingStub(channel)
+                        .getUserById(UserIdRequest.newBuilder().setId(666L).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    @Test
+    void existsByLoginShouldReturnServiceResult() {
+        when(userService.existsByLogin("testLogin")).thenReturn(true);
+
+        assertTrue(UserLookupServiceGrpc.newBlockingStub(channel)
+                .existsByLogin(UserLoginRequest.newBuilder().setLogin("testLogin").build())
+                .getExists());
+    }
+
+    @Test
+    void streamExistsByIdsShouldAnswerEachBatchInOrder() throws Exception {
+        BitSet first = new BitSet();
+        first.set(1);
+        when(userService.existsByIds(List.of(1L, 5L))).thenReturn(first);
+        when(userService.existsByIds(List.of(7L))).thenReturn(new BitSet());
+
+        Recorder<ExistsBatchResponse> recorder = new Recorder<>();
+        StreamObserver<ExistsBatchRequest> requests = UserLookupServiceGrpc.newStub(channel).streamExistsByIds(recorder);
+        requests.onNext(ExistsBatchRequest.newBuilder().addAllIds(List.of(1L, 5L)).build());
+        requests.onNext(ExistsBatchRequest.newBuilder().addIds(7L).build());
+        requests.onCompleted();
+
+        List<ExistsBatchResponse> responses = recorder.await();
+        assertEquals(List.of(false, true), responses.get(0).getExistsList());
+        assertEquals(List.of(false), responses.get(1).getExistsList());
+    }
+
+    @Test
+    void streamExistsByIdsShouldRejectOversizedBatch() {
+        Recorder<ExistsBatchResponse> recorder = new Recorder<>();
+        StreamObserver<ExistsBatchRequest> requests = UserLookupServiceGrpc.newStub(channel).streamExistsByIds(recorder);
+        requests.onNext(ExistsBatchRequest.newBuilder()
+                .addAllIds(LongStream.rangeClosed(1, UserLookupGrpcService.MAX_EXISTENCE_BATCH + 1).boxed().toList())
+                .build());
+        requests.onCompleted();
+
+        Exception exception = assertThrows(Exception.class, recorder::await);
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(exception).getCode());
+        verify(userService, never()).existsByIds(any());
+    }
+
+    @Test
+    void streamGetUsersShouldReturnEachUserOnceAndMissingKeys() throws Exception {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        when(userService.getUsers(new UserBatchRequestDto(List.of(5L, 666L), List.of("testLogin", "unknown"))))
+                .thenReturn(new UserBatchDto(Map.of(5L, userDto), Map.of("testLogin", userDto),
+                        List.of(666L), List.of("unknown")));
+
+        Recorder<UserBatchResponse> recorder = new Recorder<>();
+        StreamObserver<UserBatchRequest> requests = UserLookupServiceGrpc.newStub(channel).streamGetUsers(recorder);
+        requests.onNext(UserBatchRequest.newBuilder()
+                .addAllIds(List.of(5L, 666L))
+                .addAllLogins(List.of("testLogin", "unknown"))
+                .build());
+        requests.onCompleted();
+
+        List<UserBatchResponse> responses = recorder.await();
+        assertEquals(1, responses.size());
+        assertEquals(1, responses.get(0).getUsersCount());
+        assertEquals("testLogin", responses.get(0).getUsers(0).getLogin());
+        assertEquals(List.of(666L), responses.get(0).getMissingIdsList());
+        assertEquals(List.of("unknown"), responses.get(0).getMissingLoginsList());
+        assertFalse(responses.get(0).getUsers(0).getCreateDate().isEmpty());
+    }
+
+    private static final class Recorder<T> implements StreamObserver<T> {
+
+        private final List<T> values = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<List<T>> completion = new CompletableFuture<>();
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            completion.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completion.complete(values);
+        }
+
+        List<T> await() throws Exception {
+            try {
+                return completion.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+    }
+}
\ No newline at end of file
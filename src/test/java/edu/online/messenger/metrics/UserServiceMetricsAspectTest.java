@@ -0,0 +1,70 @@
+package edu.online.messenger.metrics;
+
+import edu.online.messenger.exception.InvalidCursorException;
+import edu.online.messenger.exception.PasswordHashingRejectedException;
+import edu.online.messenger.exception.UserNotFoundException;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.service.UserService;
+import edu.online.messenger.util.UserTestBuilder;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserService userService;
+    private UserService proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = mock(UserService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(userService);
+        factory.addAspect(new UserServiceMetricsAspect(meterRegistry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void successfulCallShouldBeTimedWithSuccessOutcome() {
+        UserDto userDto = UserTestBuilder.builder().build().buildUserDto();
+        when(userService.getUserById(5L)).thenReturn(userDto);
+
+        assertEquals(userDto, proxy.getUserById(5L));
+
+        assertEquals(1, timer("getUserById", "success").count());
+    }
+
+    @Test
+    void exceptionsShouldBeTimedWithMatchingOutcome() {
+        when(userService.getUserById(1L)).thenThrow(new UserNotFoundException(1L));
+        when(userService.findAllAfter("bad", 15, null)).thenThrow(new InvalidCursorException("bad"));
+        when(userService.getUserByLogin("busy")).thenThrow(new PasswordHashingRejectedException(null));
+
+        assertThrows(UserNotFoundException.class, () -> proxy.getUserById(1L));
+        assertThrows(InvalidCursorException.class, () -> proxy.findAllAfter("bad", 15, null));
+        assertThrows(PasswordHashingRejectedException.class, () -> proxy.getUserByLogin("busy"));
+
+        assertEquals(1, timer("getUserById", "not_found").count());
+        assertEquals(1, timer("findAllAfter", "invalid").count());
+        assertEquals(1, timer("getUserByLogin", "rejected").count());
+    }
+
+    private Timer timer(String method, String outcome) {
+        Timer timer = meterRegistry.find(UserServiceMetricsAspect.TIMER_NAME)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+        assertNotNull(timer);
+        return timer;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package edu.online.messenger.migration;
+
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.config.AbstractIntegrationTest;
+import edu.online.messenger.scheduler.SchedulerLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class PasswordMigrationRunnerIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    private PasswordMigrationRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM password_migration_checkpoint");
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (2001, 'plainOne', 'secretOne', 'USER')");
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (2002, 'plainTwo', 'secretTwo', 'USER')");
+        runner = new PasswordMigrationRunner(jdbcTemplate, passwordEncoder, userCache, schedulerLock,
+                transactionManager, 2, 2, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldHashAllPlainPasswordsInChunks() throws InterruptedException {
+        runner.run();
+
+        assertThat(passwordEncoder.matches("secretOne", passwordOf(2001L))).isTrue();
+        assertThat(passwordEncoder.matches("secretTwo", passwordOf(2002L))).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE password NOT LIKE '$2_$%'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT completed FROM password_migration_checkpoint WHERE name = 'bcrypt'", Boolean.class)).isTrue();
+    }
+
+    @Test
+    void shouldResumeAfterCheckpoint() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO password_migration_checkpoint (name, last_id, migrated, completed, updated_at) "
+                + "VALUES ('bcrypt', 2001, 0, false, now())");
+
+        runner.run();
+
+        assertThat(passwordOf(2001L)).isEqualTo("secretOne");
+        assertThat(passwordEncoder.matches("secretTwo", passwordOf(2002L))).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT migrated FROM password_migration_checkpoint WHERE name = 'bcrypt'", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldMigratePasswordsAddedAfterCompletion() throws InterruptedException {
+        runner.run();
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (1999, 'plainLate', 'secretLate', 'USER')");
+
+        runner.run();
+
+        assertThat(passwordEncoder.matches("secretLate", passwordOf(1999L))).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT completed FROM password_migration_checkpoint WHERE name = 'bcrypt'", Boolean.class)).isTrue();
+    }
+
+    @Test
+    void shouldSkipMigrationWhenLockIsHeldByAnotherInstance() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by) "
+                + "VALUES ('password-migration', LOCALTIMESTAMP + interval '1 hour', LOCALTIMESTAMP, 'other') "
+                + "ON CONFLICT (name) DO UPDATE SET locked_until = EXCLUDED.locked_until, locked_by = 'other'");
+
+        runner.run();
+
+        assertThat(passwordOf(2001L)).isEqualTo("secretOne");
+        assertThat(passwordOf(2002L)).isEqualTo("secretTwo");
+    }
+
+    private String passwordOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, id);
+    }
+}
\ No newline at end of file
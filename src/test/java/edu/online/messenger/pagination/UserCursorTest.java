@@ -0,0 +1,28 @@
+package edu.online.messenger.pagination;
+
+import edu.online.messenger.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserCursorTest {
+
+    @Test
+    void decodeShouldReturnEncodedCursor() {
+        UserCursor cursor = new UserCursor(42L);
+
+        assertEquals(cursor, UserCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeShouldReturnStartCursorWhenTokenIsBlank() {
+        assertEquals(UserCursor.start(), UserCursor.decode(""));
+    }
+
+    @Test
+    void decodeShouldThrowExceptionWhenTokenIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> UserCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> UserCursor.decode("bG9naW46NDI"));
+    }
+}
\ No newline at end of file
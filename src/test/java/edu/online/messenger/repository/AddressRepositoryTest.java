@@ -3,13 +3,20 @@ package edu.online.messenger.repository;
 import edu.online.messenger.config.AbstractIntegrationTest;
 import edu.online.messenger.model.entity.Address;
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.model.entity.dto.AddressView;
+import edu.online.messenger.specification.AddressSpecification;
 import edu.online.messenger.util.AddressTestBuilder;
 import edu.online.messenger.util.UserTestBuilder;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.List;
@@ -24,6 +31,9 @@ public class AddressRepositoryTest extends AbstractIntegrationTest {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     @Order(2)
     void findByUserIdShouldReturnListOfAddresses() {
@@ -54,4 +64,58 @@ public class AddressRepositoryTest extends AbstractIntegrationTest {
 
         assertThat(addresses).isEmpty();
     }
+
+    @Test
+    @Order(3)
+    void findViewsByUserIdShouldReturnAddressViewsWithUserId() {
+        List<AddressView> addresses = addressRepository.findViewsByUserId(5L);
+
+        assertThat(addresses).containsExactly(new AddressView(10L, 5L, 1, "testHousing", 1, "testStreet",
+                "testCity", "testPostalCode", "testCountry"));
+    }
+
+    @Test
+    void findByUserIdShouldNotLoadOwner() {
+        List<Address> addresses = addressRepository.findByUserId(5L);
+
+        assertThat(addresses).hasSize(1);
+        assertThat(Hibernate.isInitialized(addresses.get(0).getUser())).isFalse();
+        assertThat(addresses.get(0).getUser().getId()).isEqualTo(5L);
+    }
+
+    @Test
+    void findAllWithSpecificationShouldFetchOwnerInSameQuery() {
+        AddressFilterDto filter = new AddressFilterDto("testCountry", null, null, null, null, null, null);
+
+        Page<Address> page = addressRepository.findAll(AddressSpecification.findAll(filter), PageRequest.of(0, 15));
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(Hibernate.isInitialized(page.getContent().get(0).getUser())).isTrue();
+        assertThat(page.getContent().get(0).getUser().getLogin()).isEqualTo("testLogin");
+    }
+
+    @Test
+    void findListDigestByUserIdShouldChangeWhenAddressIsReplacedByLowerId() {
+        insertAddress(60L);
+        String before = addressRepository.findListDigestByUserId(5L);
+
+        jdbcTemplate.update("DELETE FROM address WHERE id = 10");
+        insertAddress(30L);
+
+        assertThat(addressRepository.findListDigestByUserId(5L)).isNotEqualTo(before);
+    }
+
+    @Test
+    void findListDigestByUserIdShouldChangeWhenAddressIsUpdated() {
+        String before = addressRepository.findListDigestByUserId(5L);
+
+        jdbcTemplate.update("UPDATE address SET city = 'otherCity', version = version + 1 WHERE id = 10");
+
+        assertThat(addressRepository.findListDigestByUserId(5L)).isNotEqualTo(before);
+    }
+
+    private void insertAddress(Long id) {
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "VALUES (?, 5, 'testCountry', 'testCity', 'testStreet', 'testPostalCode', 1)", id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package edu.online.messenger.repository;
+
+import edu.online.messenger.config.AbstractIntegrationTest;
+import edu.online.messenger.config.SqlStatementCountConfig;
+import edu.online.messenger.config.SqlStatementCounter;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.specification.AddressSpecification;
+import edu.online.messenger.specification.UserSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет через EXPLAIN, что запросы репозиториев обслуживаются индексами. SQL берётся из реального
+ * вызова репозитория, план строится как GENERIC_PLAN (параметры ? заменяются на $n) при
+ * enable_seqscan = off, чтобы на почти пустых тестовых таблицах планировщик не предпочитал seq scan.
+ */
+@SpringBootTest
+@Import(SqlStatementCountConfig.class)
+@Sql(scripts = "/sql/setup.sql")
+public class IndexUsageIntegrationTest extends AbstractIntegrationTest {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        sqlStatementCounter.reset();
+    }
+
+    @Test
+    void findByUserIdShouldUseUserIdIndex() {
+        addressRepository.findByUserId(5L);
+
+        assertThat(explainLastQuery()).contains("idx_address_user_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findViewsByUserIdShouldUseUserIdIndex() {
+        addressRepository.findViewsByUserId(5L);
+
+        assertThat(explainLastQuery()).contains("idx_address_user_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findAllBySpecificationShouldUseAddressHierarchyIndex() {
+        AddressFilterDto filter = new AddressFilterDto("testCountry", null, "testCity", "testStreet", null, null, null);
+
+        addressRepository.findAll(AddressSpecification.findAll(filter), PageRequest.of(0, 15));
+
+        assertThat(explainLastQuery()).contains("idx_address_country_city_street_house").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findViewSliceWithAddressFilterShouldNotScanTables() {
+        AddressFilterDto filter = new AddressFilterDto("testCountry", null, "testCity", null, null, null, null);
+
+        userRepository.findViewSlice(UserSpecification.hasAddress(filter), PageRequest.of(0, 15, Sort.by("id")));
+
+        assertThat(explainLastQuery()).contains("on address").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findByLastVisitDateBeforeShouldUseLastVisitDateIndex() {
+        userRepository.findByLastVisitDateBefore(LocalDateTime.now());
+
+        assertThat(explainLastQuery()).contains("idx_users_last_visit_date").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void loginLookupsShouldUseUniqueLoginIndex() {
+        userRepository.existsByLogin("testLogin");
+        assertThat(explainLastQuery()).containsPattern("Index (Only )?Scan using \\w+ on users").doesNotContain("Seq Scan");
+
+        userRepository.findViewByLogin("testLogin");
+        assertThat(explainLastQuery()).containsPattern("Index (Only )?Scan using \\w+ on users").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void searchByAddressShouldUseTrigramIndexes() {
+        userRepository.searchByAddress("testc", 10);
+
+        assertThat(explainLastQuery()).contains("idx_address_city_trgm", "idx_address_street_trgm")
+                .doesNotContain("Seq Scan on address");
+    }
+
+    @Test
+    void loginShouldBeUnique() {
+        Integer uniqueIndexes = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_index i "
+                + "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0] "
+                + "WHERE i.indrelid = 'users'::regclass AND i.indisunique AND i.indnatts = 1 AND a.attname = 'login'",
+                Integer.class);
+
+        assertThat(uniqueIndexes).isPositive();
+    }
+
+    private String explainLastQuery() {
+        List<String> executedSql = sqlStatementCounter.executedSql();
+        assertThat(executedSql).isNotEmpty();
+        String sql = executedSql.get(executedSql.size() - 1);
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, "\\$" + ++parameter);
+        }
+        matcher.appendTail(numbered);
+        String plan = String.join("\n",
+                jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered, String.class));
+        sqlStatementCounter.reset();
+        return plan;
+    }
+}
\ No newline at end of file
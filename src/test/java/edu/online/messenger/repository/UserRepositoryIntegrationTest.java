@@ -3,10 +3,16 @@ package edu.online.messenger.repository;
 import edu.online.messenger.config.AbstractIntegrationTest;
 import edu.online.messenger.constant.RoleName;
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.UserView;
 import edu.online.messenger.util.UserTestBuilder;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.jdbc.Sql;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -68,4 +74,44 @@ public class UserRepositoryIntegrationTest extends AbstractIntegrationTest {
         assertThat(foundUser).isPresent();
         assertThat(foundUser.get().getLogin()).isEqualTo("integrationTestUser");
     }
+
+    @Test
+    void shouldReturnUserViewWhenLoginExists() {
+        Optional<UserView> found = userRepository.findViewByLogin("oldUser");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().login()).isEqualTo("oldUser");
+        assertThat(userRepository.findViewById(found.get().id())).contains(found.get());
+    }
+
+    @Test
+    void shouldPageUserViewsOrderedById() {
+        Page<UserView> page = userRepository.findViewPage(Specification.where(null), PageRequest.of(0, 1, Sort.by("id")));
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getTotalElements()).isEqualTo(userRepository.count());
+    }
+
+    @Test
+    @Sql(scripts = "/sql/setup.sql")
+    void searchByAddressShouldMatchCityPrefix() {
+        assertThat(userRepository.searchByAddress("testc", 10))
+                .extracting(UserView::login)
+                .containsExactly("testLogin");
+    }
+
+    @Test
+    @Sql(scripts = "/sql/setup.sql")
+    void searchByAddressShouldTolerateTyposInStreet() {
+        assertThat(userRepository.searchByAddress("teststret", 10))
+                .extracting(UserView::login)
+                .containsExactly("testLogin");
+    }
+
+    @Test
+    @Sql(scripts = "/sql/setup.sql")
+    void searchByAddressShouldTreatLikeWildcardsLiterally() {
+        assertThat(userRepository.searchByAddress("%%%", 10)).isEmpty();
+        assertThat(userRepository.searchByAddress("___", 10)).isEmpty();
+    }
 }
\ No newline at end of file
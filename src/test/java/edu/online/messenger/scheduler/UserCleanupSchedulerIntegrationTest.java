@@ -0,0 +1,73 @@
+package edu.online.messenger.scheduler;
+
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.config.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class UserCleanupSchedulerIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired
+    private UserCache userCache;
+
+    private UserCleanupScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM scheduler_lock");
+        jdbcTemplate.update("UPDATE users SET last_visit_date = LOCALTIMESTAMP");
+        insertUser(3001L, "staleOne", "2020-01-01 00:00:00");
+        insertUser(3002L, "staleTwo", "2020-01-01 00:00:00");
+        insertUser(3003L, "activeUser", "2099-01-01 00:00:00");
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "VALUES (3101, 3001, 'country', 'city', 'street', '000000', 1)");
+        scheduler = new UserCleanupScheduler(jdbcTemplate, transactionManager, schedulerLock, userCache,
+                3, 1, Duration.ofMinutes(1), Duration.ZERO);
+    }
+
+    @Test
+    void shouldDeleteInactiveUsersWithAddressesInBatches() {
+        scheduler.deleteInactiveUsers();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM users WHERE id >= 3001", Long.class))
+                .containsExactly(3003L);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM address WHERE id = 3101", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT locked_until <= LOCALTIMESTAMP FROM scheduler_lock WHERE name = 'user-cleanup'", Boolean.class))
+                .isTrue();
+    }
+
+    @Test
+    void shouldSkipRunWhenLockIsHeldByAnotherInstance() {
+        jdbcTemplate.update("INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by) "
+                + "VALUES ('user-cleanup', LOCALTIMESTAMP + interval '1 hour', LOCALTIMESTAMP, 'other-instance')");
+
+        scheduler.deleteInactiveUsers();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id IN (3001, 3002)", Long.class))
+                .isEqualTo(2L);
+    }
+
+    private void insertUser(Long id, String login, String lastVisitDate) {
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role, last_visit_date) "
+                + "VALUES (?, ?, 'password', 'USER', CAST(? AS timestamp))", id, login, lastVisitDate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package edu.online.messenger.security;
+
+import edu.online.messenger.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void encodeAllShouldKeepInputOrder() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 3, 10);
+        List<String> passwords = List.of("first", "second", "third", "fourth", "fifth");
+
+        List<String> encoded = executor.encodeAll(passwords);
+
+        assertEquals(passwords.size(), encoded.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(encoder.matches(passwords.get(i), encoded.get(i)));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeShouldBeRejectedWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BCryptPasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(blockingEncoder, meterRegistry, 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.encode("running"));
+        awaitGauge(meterRegistry, "password.hashing.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.encode("queued"));
+        awaitGauge(meterRegistry, "password.hashing.queue.size", 1);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> executor.encode("rejected"));
+
+        release.countDown();
+        assertFalse(running.join().isEmpty());
+        assertFalse(queued.join().isEmpty());
+        executor.shutdown();
+    }
+
+    @Test
+    void upgradeEncodingShouldDetectWeakerHash() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(new BCryptPasswordEncoder(5),
+                new SimpleMeterRegistry(), 1, 1);
+
+        assertTrue(executor.upgradeEncoding(weakHash));
+        assertFalse(executor.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+        executor.shutdown();
+    }
+
+    @Test
+    void matchesDummyShouldRunBcryptAndNeverMatch() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(new BCryptPasswordEncoder(4), meterRegistry, 1, 1);
+
+        assertFalse(executor.matchesDummy("password"));
+        assertFalse(executor.matchesDummy(""));
+
+        assertEquals(2, meterRegistry.get("password.hashing.duration").timer().count());
+        executor.shutdown();
+    }
+
+    private static void awaitGauge(SimpleMeterRegistry meterRegistry, String name, double expected)
+            throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get(name).gauge().value() < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package edu.online.messenger.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.online.messenger.config.AbstractIntegrationTest;
+import edu.online.messenger.config.SqlStatementCountConfig;
+import edu.online.messenger.config.SqlStatementCounter;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.dto.UserInfoDto;
+import edu.online.messenger.model.entity.dto.UserBulkItemDto;
+import edu.online.messenger.model.entity.dto.UserBulkResultDto;
+import edu.online.messenger.repository.UserRepository;
+import edu.online.messenger.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Пакетное создание пользователей на реальной БД: вставка JDBC-батчами с id из entity_id_seq и переход
+ * на построчную вставку, если логин успели занять между проверкой и вставкой. Тесты выполняются без тестовой
+ * транзакции: saveAll сам открывает транзакцию на каждую порцию.
+ */
+@SpringBootTest(properties = "password.bcrypt.strength=4")
+@Import(SqlStatementCountConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserBulkInsertIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int USERS = 120;
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        sqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE login LIKE 'bulk\\_%'");
+    }
+
+    @Test
+    void saveAllShouldInsertInJdbcBatchesWithSequenceIds() {
+        UserBulkResultDto result = userService.saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> userInfo("bulk_user_" + i))
+                .toList());
+
+        assertThat(result.created()).isEqualTo(USERS);
+        assertThat(result.failed()).isZero();
+        List<Long> ids = result.items().stream().map(UserBulkItemDto::user).map(UserDto::getId).toList();
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE login LIKE 'bulk\\_user\\_%'",
+                Long.class)).isEqualTo(USERS);
+
+        List<String> executedSql = sqlStatementCounter.executedSql();
+        assertThat(executedSql.stream().filter(sql -> sql.startsWith("[batch] insert into users")))
+                .hasSize((USERS + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE);
+        assertThat(executedSql.stream().filter(sql -> sql.contains("nextval('entity_id_seq')")))
+                .hasSizeLessThanOrEqualTo((USERS + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE);
+    }
+
+    @Test
+    void saveAllShouldFallBackToRowByRowInsertWhenLoginIsTakenConcurrently() {
+        doAnswer(invocation -> {
+            Object existing = invocation.callRealMethod();
+            jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (70001, 'bulk_race', 'password', 'USER')");
+            return existing;
+        }).when(userRepository).findExistingLogins(anyCollection());
+
+        UserBulkResultDto result = userService.saveAll(List.of(
+                userInfo("bulk_first"), userInfo("bulk_race"), userInfo("bulk_second")));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.items().get(0).user().getLogin()).isEqualTo("bulk_first");
+        assertThat(result.items().get(1).user()).isNull();
+        assertThat(result.items().get(1).error()).contains("bulk_race");
+        assertThat(result.items().get(2).user().getLogin()).isEqualTo("bulk_second");
+        assertThat(jdbcTemplate.queryForList("SELECT login FROM users WHERE login LIKE 'bulk\\_%' ORDER BY login",
+                String.class)).containsExactly("bulk_first", "bulk_race", "bulk_second");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM users WHERE login = 'bulk_race'", Long.class))
+                .isEqualTo(70001L);
+    }
+
+    private UserInfoDto userInfo(String login) {
+        return objectMapper.convertValue(Map.of("login", login, "password", "bulkPassword1", "role", "USER"),
+                UserInfoDto.class);
+    }
+}
\ No newline at end of file
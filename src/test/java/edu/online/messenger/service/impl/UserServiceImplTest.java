@@ -1,36 +1,69 @@
 package edu.online.messenger.service.impl;
 
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.cache.UserExistenceFilter;
+import edu.online.messenger.constant.CountMode;
+import edu.online.messenger.datasource.PrimaryReadContext;
+import edu.online.messenger.datasource.ReadYourWritesTracker;
 import edu.online.messenger.exception.UserNotFoundException;
 import edu.online.messenger.mapper.AddressMapper;
 import edu.online.messenger.mapper.UserMapper;
 import edu.online.messenger.model.dto.AddressCreateDto;
 import edu.online.messenger.model.dto.AddressDto;
+import edu.online.messenger.model.dto.UserInfoDto;
 import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.dto.page.PageContentDto;
+import edu.online.messenger.model.dto.page.PageParamDto;
 import edu.online.messenger.model.entity.Address;
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.model.entity.dto.AddressListVersion;
+import edu.online.messenger.model.entity.dto.AddressView;
+import edu.online.messenger.model.entity.dto.CursorPageContentDto;
+import edu.online.messenger.model.entity.dto.PasswordCheckDto;
+import edu.online.messenger.model.entity.dto.UserBatchDto;
+import edu.online.messenger.model.entity.dto.UserBatchRequestDto;
+import edu.online.messenger.model.entity.dto.UserBulkResultDto;
+import edu.online.messenger.model.entity.dto.UserView;
+import edu.online.messenger.model.entity.dto.VersionedUserDto;
+import edu.online.messenger.pagination.UserCursor;
 import edu.online.messenger.repository.AddressRepository;
 import edu.online.messenger.repository.UserRepository;
+import edu.online.messenger.security.PasswordHashingExecutor;
 import edu.online.messenger.util.AddressTestBuilder;
 import edu.online.messenger.util.UserTestBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import jakarta.validation.Validator;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,6 +83,24 @@ public class UserServiceImplTest {
     @Mock
     private AddressMapper addressMapper;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -57,6 +108,7 @@ public class UserServiceImplTest {
     void existsByIdShouldReturnTrueWhenUserExists() {
         User user = UserTestBuilder.builder().build().buildUser();
 
+        when(userExistenceFilter.mightContainId(user.getId())).thenReturn(true);
         when(userRepository.existsById(user.getId())).thenReturn(true);
 
         boolean result = userService.existsById(user.getId());
@@ -69,6 +121,7 @@ public class UserServiceImplTest {
     void existsByIdShouldReturnFalseWhenUserDoesNotExist() {
         Long id = 15L;
 
+        when(userExistenceFilter.mightContainId(id)).thenReturn(true);
         when(userRepository.existsById(id)).thenReturn(false);
 
         boolean result = userService.existsById(id);
@@ -77,6 +130,26 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).existsById(id);
     }
 
+    @Test
+    void existsByIdShouldReturnFalseWithoutQueryWhenFilterRejectsId() {
+        Long id = 15L;
+
+        when(userExistenceFilter.mightContainId(id)).thenReturn(false);
+
+        assertFalse(userService.existsById(id));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void existsByLoginShouldReturnFalseWithoutQueryWhenFilterRejectsLogin() {
+        String login = "test";
+
+        when(userExistenceFilter.mightContainLogin(login)).thenReturn(false);
+
+        assertFalse(userService.existsByLogin(login));
+        verify(userRepository, never()).existsByLogin(any());
+    }
+
     @Test
     void deleteAddressByIdShouldInvokeRepositoryWhenAddressExists() {
         Address address = AddressTestBuilder.builder().build().buildAddress();
@@ -100,6 +173,7 @@ public class UserServiceImplTest {
     void existsByLoginShouldReturnTrueWhenUserExists() {
         String login = "test";
 
+        when(userExistenceFilter.mightContainLogin(login)).thenReturn(true);
         when(userRepository.existsByLogin(login)).thenReturn(true);
 
         boolean result = userService.existsByLogin(login);
@@ -112,6 +186,7 @@ public class UserServiceImplTest {
     void existsByLoginShouldReturnFalseWhenUserDoesNotExist() {
         String login = "test";
 
+        when(userExistenceFilter.mightContainLogin(login)).thenReturn(true);
         when(userRepository.existsByLogin(login)).thenReturn(false);
 
         boolean result = userService.existsByLogin(login);
@@ -127,6 +202,23 @@ public class UserServiceImplTest {
         userService.deleteUserById(id);
 
         verify(userRepository, times(1)).deleteById(id);
+        verify(userCache, times(1)).evictById(id);
+    }
+
+    @Test
+    void deleteUserShouldEvictCacheOnlyAfterCommit() {
+        Long id = 3L;
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUserById(id);
+
+            verify(userCache, never()).evictById(id);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(userCache, times(1)).evictById(id);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -142,38 +234,106 @@ public class UserServiceImplTest {
     @Test
     void getUserByIdShouldReturnUserDtoWhenUserExists() {
         Long userId = 5L;
-        User user = UserTestBuilder.builder().withId(userId).build().buildUser();
+        UserView userView = UserTestBuilder.builder().withId(userId).build().buildUserView();
         UserDto userDto = UserTestBuilder.builder().withId(userId).build().buildUserDto();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userMapper.toDto(user)).thenReturn(userDto);
+        when(userRepository.findViewById(userId)).thenReturn(Optional.of(userView));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
 
         UserDto result = userService.getUserById(userId);
 
         assertNotNull(result);
         assertEquals(userId, result.getId());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userMapper, times(1)).toDto(user);
+        verify(userRepository, times(1)).findViewById(userId);
+        verify(userMapper, times(1)).toDto(userView);
+        verify(userCache, times(1)).put(userDto, 0L);
+    }
+
+    @Test
+    void getUserByIdShouldReadFromPrimaryWhenUserWasRecentlyWritten() {
+        Long userId = 5L;
+        UserView userView = UserTestBuilder.builder().withId(userId).build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().withId(userId).build().buildUserDto();
+
+        when(readYourWritesTracker.isRecentlyWritten(userId)).thenReturn(true);
+        when(userRepository.findViewById(userId)).thenAnswer(invocation -> {
+            assertTrue(PrimaryReadContext.isForced());
+            return Optional.of(userView);
+        });
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        assertEquals(userDto, userService.getUserById(userId));
+        assertFalse(PrimaryReadContext.isForced());
+    }
+
+    @Test
+    void getUserByIdShouldReturnCachedUserWithoutQueryingRepository() {
+        Long userId = 5L;
+        UserDto userDto = UserTestBuilder.builder().withId(userId).build().buildUserDto();
+
+        when(userCache.getById(userId)).thenReturn(userDto);
+
+        UserDto result = userService.getUserById(userId);
+
+        assertEquals(userDto, result);
+        verify(userRepository, never()).findViewById(any());
+        verify(userMapper, never()).toDto(any(UserView.class));
     }
 
     @Test
     void getUserByIdShouldThrowExceptionWhenUserDoesNotExist() {
         Long userId = 666L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(userId)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(userId));
-        verify(userRepository, times(1)).findById(userId);
-        verify(userMapper, never()).toDto(any());
+        verify(userRepository, times(1)).findViewById(userId);
+        verify(userMapper, never()).toDto(any(UserView.class));
+    }
+
+    @Test
+    void getVersionedUserByIdShouldReturnCachedUserAndVersionWithoutQueryingRepository() {
+        UserDto userDto = UserTestBuilder.builder().withId(5L).build().buildUserDto();
+        when(userCache.getVersionedById(5L)).thenReturn(new VersionedUserDto(userDto, 3L));
+
+        assertEquals(new VersionedUserDto(userDto, 3L), userService.getVersionedUserById(5L));
+        verify(userRepository, never()).findViewById(any());
+        verify(userCache, never()).getById(any());
+    }
+
+    @Test
+    void getVersionedUserByIdShouldLoadAndCacheViewWhenUserIsNotCached() {
+        UserView userView = UserTestBuilder.builder().withId(5L).withVersion(2L).build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().withId(5L).build().buildUserDto();
+        when(userRepository.findViewById(5L)).thenReturn(Optional.of(userView));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        assertEquals(new VersionedUserDto(userDto, 2L), userService.getVersionedUserById(5L));
+        verify(userCache, times(1)).put(userDto, 2L);
+    }
+
+    @Test
+    void getVersionedUserByIdShouldThrowExceptionWhenUserDoesNotExist() {
+        when(userRepository.findViewById(666L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getVersionedUserById(666L));
+    }
+
+    @Test
+    void getAddressListVersionShouldNotLoadAddresses() {
+        when(addressRepository.findListDigestByUserId(5L)).thenReturn("digest");
+
+        assertEquals(new AddressListVersion("digest"), userService.getAddressListVersion(5L));
+        verify(addressRepository, never()).findViewsByUserId(any());
     }
 
     @Test
     void getAddressListByUserIdShouldReturnAddressDtoListWhenAddressExist() {
         Long userId = 5L;
 
-        List<Address> addresses = List.of(
-                AddressTestBuilder.builder().withId(1L).build().buildAddress(),
-                AddressTestBuilder.builder().withId(2L).build().buildAddress()
+        List<AddressView> addresses = List.of(
+                AddressTestBuilder.builder().withId(1L).build().buildAddressView(),
+                AddressTestBuilder.builder().withId(2L).build().buildAddressView()
         );
 
         List<AddressDto> expectedDto = List.of(
@@ -181,11 +341,11 @@ public class UserServiceImplTest {
                 AddressTestBuilder.builder().withId(2L).build().buildAddressDto()
         );
 
-        when(addressRepository.findByUserId(userId)).thenReturn(addresses);
-        when(addressMapper.toDto(any(Address.class))).thenAnswer(invocation -> {
-            Address address = invocation.getArgument(0);
+        when(addressRepository.findViewsByUserId(userId)).thenReturn(addresses);
+        when(addressMapper.toDto(any(AddressView.class))).thenAnswer(invocation -> {
+            AddressView address = invocation.getArgument(0);
             return expectedDto.stream()
-                    .filter((AddressDto dto) -> dto.getId().equals(address.getId()))
+                    .filter((AddressDto dto) -> dto.getId().equals(address.id()))
                     .findFirst()
                     .orElseThrow();
         });
@@ -196,50 +356,50 @@ public class UserServiceImplTest {
         assertEquals(expectedDto.get(0), addressDtoList.get(0));
         assertEquals(expectedDto.get(1), addressDtoList.get(1));
 
-        verify(addressRepository, times(1)).findByUserId(userId);
-        verify(addressMapper, times(addresses.size())).toDto(any(Address.class));
+        verify(addressRepository, times(1)).findViewsByUserId(userId);
+        verify(addressMapper, times(addresses.size())).toDto(any(AddressView.class));
     }
 
     @Test
     void getAddressListByUserIdShouldReturnEmptyListWhenAddressDoesNotExist() {
         Long userId = 77L;
 
-        when(addressRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+        when(addressRepository.findViewsByUserId(userId)).thenReturn(Collections.emptyList());
 
         List<AddressDto> addressDtoList = userService.getAddressListByUserId(userId);
 
         assertTrue(addressDtoList.isEmpty());
 
-        verify(addressRepository, times(1)).findByUserId(userId);
-        verify(addressMapper, never()).toDto(any());
+        verify(addressRepository, times(1)).findViewsByUserId(userId);
+        verify(addressMapper, never()).toDto(any(AddressView.class));
     }
 
     @Test
     void getUserByLoginShouldReturnUserDtoWhenUserExists() {
         String login = "testLogin";
-        User user = UserTestBuilder.builder().build().buildUser();
+        UserView userView = UserTestBuilder.builder().build().buildUserView();
         UserDto userDto = UserTestBuilder.builder().build().buildUserDto();
 
-        when(userRepository.findByLogin(login)).thenReturn(Optional.of(user));
-        when(userMapper.toDto(user)).thenReturn(userDto);
+        when(userRepository.findViewByLogin(login)).thenReturn(Optional.of(userView));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
 
         UserDto result = userService.getUserByLogin(login);
 
         assertNotNull(result);
         assertEquals(userDto.getId(), result.getId());
-        verify(userRepository, times(1)).findByLogin(login);
-        verify(userMapper, times(1)).toDto(user);
+        verify(userRepository, times(1)).findViewByLogin(login);
+        verify(userMapper, times(1)).toDto(userView);
     }
 
     @Test
     void getUserByLoginShouldThrowExceptionWhenUserDoesNotExist() {
         String login = "notExist";
 
-        when(userRepository.findByLogin(login)).thenReturn(Optional.empty());
+        when(userRepository.findViewByLogin(login)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserByLogin(login));
-        verify(userRepository, times(1)).findByLogin(login);
-        verify(userMapper, never()).toDto(any());
+        verify(userRepository, times(1)).findViewByLogin(login);
+        verify(userMapper, never()).toDto(any(UserView.class));
     }
 
     @Test
@@ -266,6 +426,7 @@ public class UserServiceImplTest {
         verify(addressMapper, times(1)).toEntity(addressCreateDto);
         verify(addressRepository, times(1)).save(address);
         verify(addressMapper, times(1)).toDto(savedAddress);
+        verify(readYourWritesTracker).markWritten(userId);
     }
 
     @Test
@@ -280,6 +441,199 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
         verify(addressMapper, never()).toEntity(any());
         verify(addressRepository, never()).save(any());
-        verify(addressMapper, never()).toDto(any());
+        verify(addressMapper, never()).toDto(any(Address.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllShouldPageUsersWithoutAddressQueryWhenFilterIsEmpty() {
+        UserView userView = UserTestBuilder.builder().build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().build().buildUserDto();
+        AddressFilterDto filter = new AddressFilterDto(null, null, null, null, null, null, null);
+
+        when(userRepository.findViewPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(userView), PageRequest.of(0, 15), 1));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 15), filter, CountMode.EXACT);
+
+        assertEquals(List.of(userDto), result.content());
+        verify(userRepository, times(1)).findViewPage(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(addressRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllShouldPageUsersBySpecificationWhenFilterIsPresent() {
+        UserView userView = UserTestBuilder.builder().build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().build().buildUserDto();
+        AddressFilterDto filter = new AddressFilterDto("belarus", null, "minsk", null, null, null, null);
+
+        when(userRepository.findViewPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(userView), PageRequest.of(0, 15), 1));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 15), filter, CountMode.EXACT);
+
+        assertEquals(List.of(userDto), result.content());
+        verify(userRepository, times(1)).findViewPage(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(addressRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllShouldSkipCountWhenCountModeIsNone() {
+        UserView userView = UserTestBuilder.builder().build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().build().buildUserDto();
+        AddressFilterDto filter = new AddressFilterDto(null, null, "minsk", null, null, null, null);
+
+        when(userRepository.findViewSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(userView), PageRequest.of(0, 15), false));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 15), filter, CountMode.NONE);
+
+        assertEquals(List.of(userDto), result.content());
+        assertEquals(-1L, result.page().totalElements());
+        verify(userRepository, never()).count(any(Specification.class));
+        verify(userRepository, never()).estimateCount(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllShouldFallBackToExactCountWhenEstimateIsUnavailable() {
+        AddressFilterDto filter = new AddressFilterDto(null, null, null, null, null, null, null);
+
+        when(userRepository.findViewSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 15), false));
+        when(userRepository.estimateCount()).thenReturn(-1L);
+        when(userRepository.count(any(Specification.class))).thenReturn(0L);
+
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 15), filter, CountMode.ESTIMATE);
+
+        assertEquals(0L, result.page().totalElements());
+        verify(userRepository, times(1)).count(any(Specification.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllAfterShouldReturnNextCursorWhenMoreUsersExist() {
+        UserView userView = UserTestBuilder.builder().withId(7L).build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().withId(7L).build().buildUserDto();
+        AddressFilterDto filter = new AddressFilterDto(null, null, null, null, null, null, null);
+
+        when(userRepository.findViewSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(userView), PageRequest.of(0, 1), true));
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        CursorPageContentDto<UserDto> result = userService.findAllAfter(new UserCursor(3L).encode(), 1, filter);
+
+        assertEquals(List.of(userDto), result.content());
+        assertEquals(new UserCursor(7L).encode(), result.nextCursor());
+        verify(userRepository, never()).count(any(Specification.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void findAllAfterShouldReturnNoCursorOnLastPage() {
+        AddressFilterDto filter = new AddressFilterDto(null, null, "minsk", null, null, null, null);
+
+        when(userRepository.findViewSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 15), false));
+
+        CursorPageContentDto<UserDto> result = userService.findAllAfter("", 15, filter);
+
+        assertTrue(result.content().isEmpty());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void searchByAddressShouldNormalizeQueryAndKeepRanking() {
+        UserView first = UserTestBuilder.builder().withId(7L).build().buildUserView();
+        UserView second = UserTestBuilder.builder().withId(3L).build().buildUserView();
+        UserDto firstDto = UserTestBuilder.builder().withId(7L).build().buildUserDto();
+        UserDto secondDto = UserTestBuilder.builder().withId(3L).build().buildUserDto();
+
+        when(userRepository.searchByAddress("mosc", 10)).thenReturn(List.of(first, second));
+        when(userMapper.toDto(first)).thenReturn(firstDto);
+        when(userMapper.toDto(second)).thenReturn(secondDto);
+
+        List<UserDto> result = userService.searchByAddress("  Mosc ", 10);
+
+        assertEquals(List.of(firstDto, secondDto), result);
+    }
+
+    @Test
+    void getUsersShouldReturnFoundUsersAndReportMissingOnes() {
+        UserView userView = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserView();
+        UserDto userDto = UserTestBuilder.builder().withId(5L).withLogin("testLogin").build().buildUserDto();
+        UserDto cachedDto = UserTestBuilder.builder().withId(6L).withLogin("cachedLogin").build().buildUserDto();
+
+        when(userCache.getById(6L)).thenReturn(cachedDto);
+        when(userRepository.findViewsByIdIn(List.of(5L, 666L))).thenReturn(List.of(userView));
+        when(userRepository.findViewsByLoginIn(List.of("notExist"))).thenReturn(List.of());
+        when(userMapper.toDto(userView)).thenReturn(userDto);
+
+        UserBatchDto result = userService.getUsers(new UserBatchRequestDto(List.of(5L, 6L, 666L, 5L), List.of("notExist")));
+
+        assertEquals(userDto, result.usersById().get(5L));
+        assertEquals(cachedDto, result.usersById().get(6L));
+        assertEquals(List.of(666L), result.missingIds());
+        assertEquals(List.of("notExist"), result.missingLogins());
+        assertTrue(result.usersByLogin().isEmpty());
+        verify(userCache, times(1)).put(userDto, 0L);
+    }
+
+    @Test
+    void saveAllShouldRejectDuplicateAndExistingLoginsWithoutInserting() {
+        UserInfoDto first = mock(UserInfoDto.class);
+        UserInfoDto duplicate = mock(UserInfoDto.class);
+        UserInfoDto existing = mock(UserInfoDto.class);
+        when(first.getLogin()).thenReturn("newLogin");
+        when(duplicate.getLogin()).thenReturn("newLogin");
+        when(existing.getLogin()).thenReturn("testLogin");
+        when(validator.validate(any(UserInfoDto.class))).thenReturn(Set.of());
+        when(userRepository.findExistingLogins(List.of("newLogin", "testLogin"))).thenReturn(List.of("newLogin", "testLogin"));
+
+        UserBulkResultDto result = userService.saveAll(List.of(first, duplicate, existing));
+
+        assertEquals(0, result.created());
+        assertEquals(3, result.failed());
+        assertTrue(result.items().stream().allMatch(item -> item.user() == null && item.error() != null));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void checkPasswordShouldRehashPasswordEncodedWithWeakerStrength() {
+        User user = UserTestBuilder.builder().withId(5L).withLogin("testLogin").withPassword("weakHash").build().buildUser();
+        when(userRepository.findByLogin("testLogin")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("secret", "weakHash")).thenReturn(true);
+        when(passwordHashingExecutor.upgradeEncoding("weakHash")).thenReturn(true);
+        when(passwordHashingExecutor.encode("secret")).thenReturn("strongHash");
+        when(userRepository.updatePassword(5L, "weakHash", "strongHash")).thenReturn(1);
+
+        assertTrue(userService.checkPassword(new PasswordCheckDto("testLogin", "secret")));
+
+        verify(userCache, times(1)).evictById(5L);
+    }
+
+    @Test
+    void checkPasswordShouldReturnFalseAndRunDummyCheckWhenLoginIsUnknown() {
+        when(userRepository.findByLogin("unknown")).thenReturn(Optional.empty());
+
+        assertFalse(userService.checkPassword(new PasswordCheckDto("unknown", "secret")));
+
+        verify(passwordHashingExecutor, times(1)).matchesDummy("secret");
+    }
+
+    @Test
+    void checkPasswordShouldNotRehashWhenPasswordDoesNotMatch() {
+        User user = UserTestBuilder.builder().withId(5L).withLogin("testLogin").withPassword("weakHash").build().buildUser();
+        when(userRepository.findByLogin("testLogin")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("wrong", "weakHash")).thenReturn(false);
+
+        assertFalse(userService.checkPassword(new PasswordCheckDto("testLogin", "wrong")));
+
+        verify(userRepository, never()).updatePassword(any(), any(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package edu.online.messenger.service.impl;
+
+import edu.online.messenger.cache.UserCache;
+import edu.online.messenger.config.AbstractIntegrationTest;
+import edu.online.messenger.config.SqlStatementCountConfig;
+import edu.online.messenger.config.SqlStatementCounter;
+import edu.online.messenger.constant.CountMode;
+import edu.online.messenger.model.dto.AddressDto;
+import edu.online.messenger.model.dto.UserDto;
+import edu.online.messenger.model.dto.page.PageContentDto;
+import edu.online.messenger.model.dto.page.PageParamDto;
+import edu.online.messenger.model.entity.dto.AddressFilterDto;
+import edu.online.messenger.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ограничивает число SQL-запросов и прочитанных строк на вызов {@link UserService}, чтобы N+1
+ * и лишние загрузки ловились тестами. Тесты выполняются без тестовой транзакции: иначе удаления
+ * не сбрасывались бы в БД и не попадали в подсчёт.
+ */
+@SpringBootTest
+@Import(SqlStatementCountConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserServiceSqlCountTest extends AbstractIntegrationTest {
+
+    private static final String COUNTRY = "sqlCountCountry";
+    private static final long FIRST_USER_ID = 50001;
+    private static final int PAGED_USERS = 60;
+    private static final long OWNER_ID = 50100;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) "
+                + "SELECT ? + g, 'sql_count_' || g, 'password', 'USER' FROM generate_series(0, ?) g",
+                FIRST_USER_ID, PAGED_USERS - 1);
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "SELECT 60000 + g, ? + g, ?, 'city', 'street', '000000', 1 FROM generate_series(0, ?) g",
+                FIRST_USER_ID, COUNTRY, PAGED_USERS - 1);
+        jdbcTemplate.update("INSERT INTO users (id, login, password, role) VALUES (?, 'sql_count_owner', 'password', 'USER')",
+                OWNER_ID);
+        jdbcTemplate.update("INSERT INTO address (id, user_id, country, city, street, postal_code, house) "
+                + "SELECT 61000 + g, ?, 'ownerCountry', 'city', 'street', '000000', g FROM generate_series(1, 3) g",
+                OWNER_ID);
+        userCache.invalidateAll();
+        sqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM address WHERE user_id BETWEEN ? AND ?", FIRST_USER_ID, OWNER_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE id BETWEEN ? AND ?", FIRST_USER_ID, OWNER_ID);
+    }
+
+    @Test
+    void findAllShouldFetchFiftyRowPageWithPageQueryAndCount() {
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 50), countryFilter(), CountMode.EXACT);
+
+        assertEquals(50, result.content().size());
+        sqlStatementCounter.assertAtMost(2, 51);
+    }
+
+    @Test
+    void findAllWithoutCountShouldIssueSingleQuery() {
+        PageContentDto<UserDto> result = userService.findAll(new PageParamDto(1, 50), countryFilter(), CountMode.NONE);
+
+        assertEquals(50, result.content().size());
+        sqlStatementCounter.assertAtMost(1, 51);
+    }
+
+    @Test
+    void getAddressListByUserIdShouldNotLoadOwner() {
+        List<AddressDto> addresses = userService.getAddressListByUserId(OWNER_ID);
+
+        assertEquals(3, addresses.size());
+        sqlStatementCounter.assertAtMost(1, 3);
+    }
+
+    @Test
+    void getUserByIdShouldIssueSingleQuery() {
+        userService.getUserById(FIRST_USER_ID);
+
+        sqlStatementCounter.assertAtMost(1, 1);
+    }
+
+    @Test
+    void deleteUserByIdShouldDeleteAddressesInOneBatch() {
+        userService.deleteUserById(OWNER_ID);
+
+        sqlStatementCounter.assertAtMost(4, 4);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Long.class, OWNER_ID));
+    }
+
+    private static AddressFilterDto countryFilter() {
+        return new AddressFilterDto(COUNTRY, null, null, null, null, null, null);
+    }
+}
\ No newline at end of file
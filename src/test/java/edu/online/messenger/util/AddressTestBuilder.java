@@ -2,6 +2,7 @@ package edu.online.messenger.util;
 
 import edu.online.messenger.model.dto.AddressDto;
 import edu.online.messenger.model.entity.Address;
+import edu.online.messenger.model.entity.dto.AddressView;
 import lombok.Builder;
 
 @Builder(setterPrefix = "with")
@@ -21,4 +22,8 @@ public class AddressTestBuilder {
         dto.setId(id);
         return dto;
     }
+
+    public AddressView buildAddressView() {
+        return new AddressView(id, null, null, null, 0, null, null, null, null);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.online.messenger.util;
 import edu.online.messenger.constant.RoleName;
 import edu.online.messenger.model.dto.UserDto;
 import edu.online.messenger.model.entity.User;
+import edu.online.messenger.model.entity.dto.UserView;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
@@ -27,6 +28,9 @@ public class UserTestBuilder {
     @Builder.Default
     private LocalDateTime createDate = LocalDateTime.now();
 
+    @Builder.Default
+    private long version = 0;
+
     public User buildUser() {
         User user = new User();
         user.setId(id);
@@ -48,4 +52,8 @@ public class UserTestBuilder {
         userDto.setCreateDate(createDate);
         return userDto;
     }
+
+    public UserView buildUserView() {
+        return new UserView(id, login, password, role, createDate, lastVisitDate, version);
+    }
 }
\ No newline at end of file